@@ -0,0 +1,65 @@
+package com.example.test.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt hashing and verification at a range of cost factors; each step doubles the work.
+ * {@link #encrypt()} and {@link #matches()} go through {@link PasswordEncryptor} and its timer and
+ * span at the application's cost, so they show what the wrapper adds on top of the raw encoder
+ * at strength 10.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordEncryptorBenchmark {
+    private static final String PASSWORD = "Password123!";
+
+    private String applicationHash;
+
+    @Setup
+    public void setUp() {
+        applicationHash = PasswordEncryptor.encrypt(PASSWORD);
+    }
+
+    // Separate state so the cost parameter only multiplies the raw encoder benchmarks
+    @State(Scope.Benchmark)
+    public static class Cost {
+        @Param({"4", "8", "10", "12"})
+        public int strength;
+
+        BCryptPasswordEncoder encoder;
+        String hash;
+
+        @Setup
+        public void setUp() {
+            encoder = new BCryptPasswordEncoder(strength);
+            hash = encoder.encode(PASSWORD);
+        }
+    }
+
+    @Benchmark
+    public String encode(Cost cost) {
+        return cost.encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify(Cost cost) {
+        return cost.encoder.matches(PASSWORD, cost.hash);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return PasswordEncryptor.encrypt(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return PasswordEncryptor.matches(PASSWORD, applicationHash);
+    }
+}
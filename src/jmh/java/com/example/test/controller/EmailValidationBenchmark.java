@@ -0,0 +1,31 @@
+package com.example.test.controller;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the email check run on every {@code /users/preview} and {@code /users/delete}, with
+ * the precompiled pattern next to {@link String#matches}, which compiles it on each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailValidationBenchmark {
+
+    @Param({"john.doe+test@example.com", "not-an-email"})
+    public String email;
+
+    @Benchmark
+    public boolean precompiled() {
+        return UserController.isValidEmailFormat(email);
+    }
+
+    @Benchmark
+    public boolean stringMatches() {
+        return email.matches(UserController.EMAIL_PATTERN.pattern());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.test.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the single-object DTOs: the request body of create/update, a preview
+ * response and an error response. The mapper is built the way Spring Boot builds the
+ * application's, including the Blackbird module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DTOJsonBenchmark {
+    private ObjectWriter requestWriter;
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private ObjectReader responseReader;
+    private ObjectWriter errorWriter;
+
+    private RequestDTO request;
+    private ResponseDTO response;
+    private ErrorResponseDTO error;
+    private byte[] requestJson;
+    private byte[] responseJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+        requestWriter = mapper.writerFor(RequestDTO.class);
+        requestReader = mapper.readerFor(RequestDTO.class);
+        responseWriter = mapper.writerFor(ResponseDTO.class);
+        responseReader = mapper.readerFor(ResponseDTO.class);
+        errorWriter = mapper.writerFor(ErrorResponseDTO.class);
+
+        request = new RequestDTO("John Doe", "john@example.com", "Password123!");
+        response = new ResponseDTO(UUID.randomUUID(), "John Doe", "john@example.com",
+                "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1PxHVyvO9KvhYqQk5TTqN9a");
+        error = new ErrorResponseDTO(400, "Validation Failed", "Invalid request", "/users/create",
+                List.of("Name must be between 2 and 50 characters", "Please provide a valid email address"));
+        requestJson = requestWriter.writeValueAsBytes(request);
+        responseJson = responseWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeRequest() throws Exception {
+        return requestWriter.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public RequestDTO deserializeRequest() throws Exception {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return responseWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public ResponseDTO deserializeResponse() throws Exception {
+        return responseReader.readValue(responseJson);
+    }
+
+    @Benchmark
+    public byte[] serializeError() throws Exception {
+        return errorWriter.writeValueAsBytes(error);
+    }
+}
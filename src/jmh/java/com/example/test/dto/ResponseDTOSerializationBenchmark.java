@@ -0,0 +1,77 @@
+package com.example.test.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of a {@code /users/all} payload in JSON, CBOR and Smile.
+ * Payload sizes are printed once per trial. Run with {@code -prof gc} to compare allocation per
+ * operation with and without the Blackbird module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseDTOSerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"100"})
+    public int users;
+
+    @Param({"false", "true"})
+    public boolean blackbird;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<ResponseDTO> payload;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper mapper = switch (format) {
+            case "cbor" -> new ObjectMapper(new CBORFactory());
+            case "smile" -> new ObjectMapper(new SmileFactory());
+            default -> new ObjectMapper();
+        };
+        if (blackbird) {
+            mapper.registerModule(new BlackbirdModule());
+        }
+        TypeReference<List<ResponseDTO>> type = new TypeReference<>() {
+        };
+        writer = mapper.writerFor(type);
+        reader = mapper.readerFor(type);
+
+        payload = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            payload.add(new ResponseDTO(UUID.randomUUID(), "User " + i, "user" + i + "@example.com",
+                    "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1PxHVyvO9KvhYqQk5TTqN9a"));
+        }
+        encoded = writer.writeValueAsBytes(payload);
+        System.out.println(format + " payload: " + encoded.length + " bytes for " + users + " users");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public List<ResponseDTO> deserialize() throws Exception {
+        return reader.readValue(encoded);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.test.exceptions;
+
+import com.example.test.TestApplication;
+import com.example.test.dto.RequestDTO;
+import com.example.test.services.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the 404 and 409 paths next to a successful preview. With stackless
+ * {@link UserException}s the error paths should stay close to {@link #previewFound()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ErrorPathBenchmark {
+    private static final String EMAIL = "benchmark@example.com";
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest found;
+    private HttpRequest missing;
+    private HttpRequest duplicate;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TestApplication.class)
+                .properties("server.port=0", "grpc.server.enabled=false", "spring.jpa.show-sql=false",
+                        "logging.level.com.example=WARN")
+                .run();
+        context.getBean(UserService.class).toSaveUser(new RequestDTO("Benchmark", EMAIL, "Password123!"));
+
+        String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/users";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        found = HttpRequest.newBuilder(URI.create(base + "/preview?email=" + EMAIL)).GET().build();
+        missing = HttpRequest.newBuilder(URI.create(base + "/preview?email=missing@example.com")).GET().build();
+        duplicate = HttpRequest.newBuilder(URI.create(base + "/create"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"name\":\"Benchmark\",\"email\":\"" + EMAIL + "\",\"password\":\"Password123!\"}"))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int previewFound() throws Exception {
+        return httpClient.send(found, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int previewMissing() throws Exception {
+        return httpClient.send(missing, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int createDuplicate() throws Exception {
+        return httpClient.send(duplicate, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.test.grpc;
+
+import com.example.test.TestApplication;
+import com.example.test.dto.RequestDTO;
+import com.example.test.grpc.proto.UserEmailRequest;
+import com.example.test.grpc.proto.UserReply;
+import com.example.test.grpc.proto.UsersGrpc;
+import com.example.test.services.UserService;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-user lookup over REST and gRPC against one locally started application.
+ * Run both benchmarks with the same {@code -t} so they are compared at equal concurrency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class UserTransportBenchmark {
+    private static final String EMAIL = "benchmark@example.com";
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest previewRequest;
+    private ManagedChannel channel;
+    private UsersGrpc.UsersBlockingStub stub;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TestApplication.class)
+                .properties("server.port=0", "grpc.server.port=0", "spring.jpa.show-sql=false",
+                        "logging.level.com.example=WARN")
+                .run();
+        context.getBean(UserService.class).toSaveUser(new RequestDTO("Benchmark", EMAIL, "Password123!"));
+
+        int httpPort = ((WebServerApplicationContext) context).getWebServer().getPort();
+        int grpcPort = context.getBean(GrpcServerLifecycle.class).getPort();
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        previewRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + httpPort + "/users/preview?email=" + EMAIL))
+                .GET()
+                .build();
+        channel = ManagedChannelBuilder.forAddress("localhost", grpcPort).usePlaintext().build();
+        stub = UsersGrpc.newBlockingStub(channel);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public String restPreview() throws Exception {
+        return httpClient.send(previewRequest, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Benchmark
+    public UserReply grpcGetUser() {
+        return stub.getUser(UserEmailRequest.newBuilder().setEmail(EMAIL).build());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.test.logging;
+
+import com.example.test.TestApplication;
+import com.example.test.dto.RequestDTO;
+import com.example.test.services.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput with application logging off, on at DEBUG through the async JSON pipeline,
+ * and on without the per-statement rate cap. Every 404 logs one line, so
+ * {@link #previewMissing()} shows the pipeline's cost; {@code users.logging.dropped} in the
+ * application's metrics shows how much the buffer shed under this load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class LoggingThroughputBenchmark {
+    private static final String EMAIL = "benchmark@example.com";
+
+    @Param({"off", "on", "uncapped"})
+    public String logging;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest found;
+    private HttpRequest missing;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TestApplication.class)
+                .properties("server.port=0", "grpc.server.enabled=false", "spring.jpa.show-sql=false",
+                        "users.logging.file=target/logs/benchmark.json",
+                        "logging.level.com.example=" + (logging.equals("off") ? "OFF" : "DEBUG"),
+                        "users.logging.max-per-second=" + (logging.equals("uncapped") ? 0 : 20))
+                .run();
+        context.getBean(UserService.class).toSaveUser(new RequestDTO("Benchmark", EMAIL, "Password123!"));
+
+        String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/users";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        found = HttpRequest.newBuilder(URI.create(base + "/preview?email=" + EMAIL)).GET().build();
+        missing = HttpRequest.newBuilder(URI.create(base + "/preview?email=missing@example.com")).GET().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int previewFound() throws Exception {
+        return httpClient.send(found, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int previewMissing() throws Exception {
+        return httpClient.send(missing, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
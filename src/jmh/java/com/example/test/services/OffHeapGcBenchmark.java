@@ -0,0 +1,66 @@
+package com.example.test.services;
+
+import com.example.test.dto.ResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full GC pause with a million serialized users held either as {@code byte[]} values in a
+ * {@link HashMap} or in {@link OffHeapUserStore}. The heap variant gives the collector millions of
+ * objects to trace; the off-heap variant leaves it the index arrays and the segment handles.
+ * Run with {@code -prof gc} to compare the retained heap as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g", "-XX:MaxDirectMemorySize=1g"})
+public class OffHeapGcBenchmark {
+
+    @Param({"heap", "offheap"})
+    public String store;
+
+    @Param({"1000000"})
+    public int users;
+
+    private Map<String, byte[]> heap;
+    private OffHeapUserStore offHeap;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        if ("heap".equals(store)) {
+            heap = new HashMap<>(users * 2);
+            for (int i = 0; i < users; i++) {
+                String email = "user" + i + "@example.com";
+                heap.put(email, objectMapper.writeValueAsBytes(preview(i, email)));
+            }
+        } else {
+            offHeap = new OffHeapUserStore(objectMapper, DataSize.ofMegabytes(512), DataSize.ofMegabytes(64),
+                    Duration.ofHours(1), new UserCache(users, Duration.ofHours(1), Duration.ofHours(1), 1, 1,
+                    new SimpleMeterRegistry()), new SimpleMeterRegistry());
+            for (int i = 0; i < users; i++) {
+                int id = i;
+                offHeap.get("user" + i + "@example.com", email -> preview(id, email));
+            }
+        }
+    }
+
+    private static ResponseDTO preview(int id, String email) {
+        return new ResponseDTO(new UUID(0, id), "User " + id, email, "$2a$10$abcdefghijklmnopqrstuv");
+    }
+
+    @Benchmark
+    public void fullGc() {
+        System.gc();
+    }
+}
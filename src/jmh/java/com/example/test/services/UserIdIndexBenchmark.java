@@ -0,0 +1,73 @@
+package com.example.test.services;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Existence checks against {@link UserIdIndex.Table} and a {@code HashMap<String, UUID>} holding
+ * the same users, for emails that are registered and emails that are not. Run with
+ * {@code -prof gc} to compare the retained heap; the table needs about 32 bytes per user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms8g", "-Xmx8g"})
+public class UserIdIndexBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int users;
+
+    private String[] registered;
+    private String[] unregistered;
+    private UserIdIndex.Table table;
+    private Map<String, UUID> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        table = new UserIdIndex.Table(users);
+        map = new HashMap<>(users * 2);
+        registered = new String[Math.min(users, 1 << 16)];
+        unregistered = new String[registered.length];
+        for (int i = 0; i < users; i++) {
+            String email = "user" + i + "@example.com";
+            UUID id = new UUID(i, ~i);
+            table.put(EmailHash.of(email), id);
+            map.put(email, id);
+            if (i < registered.length) {
+                registered[i] = email;
+                unregistered[i] = "nobody" + i + "@example.com";
+            }
+        }
+    }
+
+    private String pick(String[] emails) {
+        return emails[ThreadLocalRandom.current().nextInt(emails.length)];
+    }
+
+    @Benchmark
+    public UserIdIndex.Lookup indexPresent() {
+        return table.lookup(EmailHash.of(pick(registered)));
+    }
+
+    @Benchmark
+    public UserIdIndex.Lookup indexAbsent() {
+        return table.lookup(EmailHash.of(pick(unregistered)));
+    }
+
+    @Benchmark
+    public boolean hashMapPresent() {
+        return map.containsKey(pick(registered));
+    }
+
+    @Benchmark
+    public boolean hashMapAbsent() {
+        return map.containsKey(pick(unregistered));
+    }
+}
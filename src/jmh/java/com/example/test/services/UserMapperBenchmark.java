@@ -0,0 +1,53 @@
+package com.example.test.services;
+
+import com.example.test.dto.RequestDTO;
+import com.example.test.dto.ResponseDTO;
+import com.example.test.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping between DTOs and {@link User}. Whenever a password is set the mapper hashes it, so
+ * {@link #toEntity()} and {@link #toUpdateEntityWithPassword()} measure BCrypt at the default cost;
+ * {@link #toUpdateEntityWithoutPassword()} and {@link #toPreviewUser()} measure the mapping alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+    private final UserMapper mapper = new UserMapper();
+    private final RequestDTO create = new RequestDTO("John Doe", "john@example.com", "Password123!");
+    private final RequestDTO rename = new RequestDTO("Jane Doe", "jane@example.com", null);
+    private final User user = new User(UUID.randomUUID(), "John Doe", "john@example.com",
+            "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1PxHVyvO9KvhYqQk5TTqN9a");
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public User toEntity() {
+        return mapper.toEntity(create);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public User toUpdateEntityWithPassword() {
+        mapper.toUpdateEntity(user, create);
+        return user;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public User toUpdateEntityWithoutPassword() {
+        mapper.toUpdateEntity(user, rename);
+        return user;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ResponseDTO toPreviewUser() {
+        return mapper.toPreviewUser(user);
+    }
+}
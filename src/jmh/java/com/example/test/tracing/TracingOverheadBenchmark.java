@@ -0,0 +1,78 @@
+package com.example.test.tracing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one observed call under each tracing setup: no observation handlers at all
+ * ({@code noop}), the OpenTelemetry bridge with sampling and tail sampling off ({@code off}),
+ * unsampled spans recorded for {@link TailSamplingSpanProcessor} ({@code tail}) and every span
+ * sampled into a no-op exporter ({@code sampled}). {@code off} is the production setting with
+ * {@code management.tracing.sampling.probability=0} and should stay within a few tens of
+ * nanoseconds of {@code noop}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class TracingOverheadBenchmark {
+
+    @Param({"noop", "off", "tail", "sampled"})
+    public String mode;
+
+    private ObservationRegistry registry;
+    private SdkTracerProvider tracerProvider;
+
+    @State(Scope.Thread)
+    public static class Input {
+        long value;
+    }
+
+    @Setup
+    public void setUp() {
+        if (mode.equals("noop")) {
+            registry = ObservationRegistry.NOOP;
+            return;
+        }
+        boolean tail = mode.equals("tail");
+        SdkTracerProvider.Builder builder = SdkTracerProvider.builder()
+                .setSampler(new TailSampler(mode.equals("sampled") ? 1.0 : 0.0, tail));
+        if (tail) {
+            // Nothing in the benchmark is slow, so every trace is buffered and then discarded
+            builder.addSpanProcessor(new TailSamplingSpanProcessor(SpanExporter.composite(), Duration.ofSeconds(1),
+                    1000, new SimpleMeterRegistry()));
+        }
+        tracerProvider = builder.build();
+
+        OtelCurrentTraceContext context = new OtelCurrentTraceContext();
+        OtelTracer tracer = new OtelTracer(tracerProvider.get("benchmark"), context, event -> {
+        });
+        registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new DefaultTracingObservationHandler(tracer));
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (tracerProvider != null) {
+            tracerProvider.close();
+        }
+    }
+
+    @Benchmark
+    public long observedCall(Input input) {
+        return Observation.createNotStarted("benchmark.work", registry).observe(() -> input.value++ * 31 + 7);
+    }
+}
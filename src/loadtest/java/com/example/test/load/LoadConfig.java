@@ -0,0 +1,58 @@
+package com.example.test.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code load.*} system properties.
+ *
+ * @param rate          requests started per second, regardless of how fast responses come back
+ * @param warmup        time run at {@code rate} before recording starts
+ * @param duration      time recorded after the warm-up
+ * @param users         users created before the run for preview, update and delete to work on
+ * @param mix           relative weight of each operation
+ * @param sloP99        highest allowed p99 of every operation
+ * @param sloP999       highest allowed p99.9 of every operation
+ * @param maxErrorRate  highest allowed fraction of failed requests
+ * @param minThroughput lowest allowed fraction of {@code rate} actually completed
+ * @param report        where the JSON report is written
+ */
+record LoadConfig(double rate, Duration warmup, Duration duration, int users, Map<Operation, Integer> mix,
+                  Duration sloP99, Duration sloP999, double maxErrorRate, double minThroughput, Path report) {
+    LoadConfig {
+        if (rate <= 0 || duration.isNegative() || duration.isZero() || users < 0) {
+            throw new IllegalArgumentException("load.rate and load.duration must be positive, load.users not negative");
+        }
+    }
+
+    static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                Double.parseDouble(System.getProperty("load.rate", "100")),
+                Duration.parse(System.getProperty("load.warmup", "PT10S")),
+                Duration.parse(System.getProperty("load.duration", "PT60S")),
+                Integer.parseInt(System.getProperty("load.users", "200")),
+                parseMix(System.getProperty("load.mix", "create=10,preview=55,update=10,delete=5,list=20")),
+                Duration.parse(System.getProperty("load.slo.p99", "PT1S")),
+                Duration.parse(System.getProperty("load.slo.p999", "PT2S")),
+                Double.parseDouble(System.getProperty("load.slo.max-error-rate", "0.001")),
+                Double.parseDouble(System.getProperty("load.slo.min-throughput", "0.95")),
+                Path.of(System.getProperty("load.report", "target/load-report.json")));
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry: " + entry);
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("load.mix needs at least one positive weight");
+        }
+        return weights;
+    }
+}
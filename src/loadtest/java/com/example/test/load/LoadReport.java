@@ -0,0 +1,150 @@
+package com.example.test.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results per operation. Response time is measured from the moment the request was scheduled to
+ * start, so time a request spent waiting behind a stalled one is counted: the percentiles are
+ * free of coordinated omission. Service time, measured from when the request was actually sent,
+ * is reported next to it; a wide gap between the two means the generator or the client queued.
+ */
+class LoadReport {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Operation, Results> results = new EnumMap<>(Operation.class);
+
+    LoadReport() {
+        for (Operation operation : Operation.values()) {
+            results.put(operation, new Results());
+        }
+    }
+
+    void record(Operation operation, long responseNanos, long serviceNanos, int status) {
+        Results result = results.get(operation);
+        result.response.recordValue(micros(responseNanos));
+        result.service.recordValue(micros(serviceNanos));
+        if (status == 404) {
+            result.notFound.increment();
+        } else if (status < 200 || status >= 300) {
+            result.errors.increment();
+        }
+    }
+
+    void failed(Operation operation, long responseNanos) {
+        Results result = results.get(operation);
+        result.response.recordValue(micros(responseNanos));
+        result.errors.increment();
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), HIGHEST_TRACKABLE_MICROS);
+    }
+
+    /**
+     * Returns the SLOs this run missed; empty when it passed.
+     */
+    List<String> violations(LoadConfig config, Duration measured) {
+        List<String> violations = new ArrayList<>();
+        long total = 0;
+        long errors = 0;
+        for (Map.Entry<Operation, Results> entry : results.entrySet()) {
+            Histogram response = entry.getValue().response;
+            if (response.getTotalCount() == 0) {
+                continue;
+            }
+            total += response.getTotalCount();
+            errors += entry.getValue().errors.sum();
+            check(violations, entry.getKey().label() + " p99", response.getValueAtPercentile(99), config.sloP99());
+            check(violations, entry.getKey().label() + " p99.9", response.getValueAtPercentile(99.9), config.sloP999());
+        }
+        double errorRate = total == 0 ? 0 : (double) errors / total;
+        if (errorRate > config.maxErrorRate()) {
+            violations.add(String.format("error rate %.4f > %.4f", errorRate, config.maxErrorRate()));
+        }
+        double throughput = total / (measured.toNanos() / 1e9);
+        if (throughput < config.rate() * config.minThroughput()) {
+            violations.add(String.format("throughput %.1f/s < %.1f/s", throughput, config.rate() * config.minThroughput()));
+        }
+        return violations;
+    }
+
+    private static void check(List<String> violations, String name, long valueMicros, Duration limit) {
+        if (valueMicros > TimeUnit.NANOSECONDS.toMicros(limit.toNanos())) {
+            violations.add(String.format("%s %.1f ms > %d ms", name, valueMicros / 1000.0, limit.toMillis()));
+        }
+    }
+
+    void print(Duration measured) {
+        double seconds = measured.toNanos() / 1e9;
+        System.out.printf("%-8s %8s %9s %7s %5s %9s %9s %9s %9s %9s %12s%n", "op", "count", "rate/s", "errors", "404",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+        results.forEach((operation, result) -> {
+            Histogram response = result.response;
+            if (response.getTotalCount() == 0) {
+                return;
+            }
+            System.out.printf("%-8s %8d %9.1f %7d %5d %9.1f %9.1f %9.1f %9.1f %9.1f %12.1f%n", operation.label(),
+                    response.getTotalCount(), response.getTotalCount() / seconds, result.errors.sum(),
+                    result.notFound.sum(), millis(response.getValueAtPercentile(50)),
+                    millis(response.getValueAtPercentile(90)), millis(response.getValueAtPercentile(99)),
+                    millis(response.getValueAtPercentile(99.9)), millis(response.getMaxValue()),
+                    millis(result.service.getValueAtPercentile(99)));
+        });
+    }
+
+    void write(LoadConfig config, Duration measured, List<String> violations) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("targetRate", config.rate());
+        report.put("durationSeconds", measured.toNanos() / 1e9);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        results.forEach((operation, result) -> {
+            Histogram response = result.response;
+            if (response.getTotalCount() == 0) {
+                return;
+            }
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", response.getTotalCount());
+            summary.put("throughput", response.getTotalCount() / (measured.toNanos() / 1e9));
+            summary.put("errors", result.errors.sum());
+            summary.put("notFound", result.notFound.sum());
+            summary.put("p50Ms", millis(response.getValueAtPercentile(50)));
+            summary.put("p90Ms", millis(response.getValueAtPercentile(90)));
+            summary.put("p99Ms", millis(response.getValueAtPercentile(99)));
+            summary.put("p999Ms", millis(response.getValueAtPercentile(99.9)));
+            summary.put("maxMs", millis(response.getMaxValue()));
+            summary.put("serviceP99Ms", millis(result.service.getValueAtPercentile(99)));
+            operations.put(operation.label(), summary);
+        });
+        report.put("operations", operations);
+        report.put("violations", violations);
+        report.put("passed", violations.isEmpty());
+
+        Files.createDirectories(config.report().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(config.report().toFile(), report);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Results {
+        final Histogram response = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final Histogram service = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder notFound = new LongAdder();
+    }
+}
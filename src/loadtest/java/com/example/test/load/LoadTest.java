@@ -0,0 +1,157 @@
+package com.example.test.load;
+
+import com.example.test.TestApplication;
+import com.example.test.dto.RequestDTO;
+import com.example.test.services.UserService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+/**
+ * Open-model load test. Starts the application on a random port against in-memory H2, creates
+ * {@code load.users} users, then starts requests at a constant {@code load.rate} per second for
+ * {@code load.warmup} plus {@code load.duration}, whether or not earlier requests have completed.
+ * Prints and writes a report of the recorded part and exits with status 1 if an SLO was missed.
+ * See {@link LoadConfig} for the settings.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        // Passed as arguments: builder properties are only defaults, which application.properties overrides
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TestApplication.class)
+                .run(withDefaults(args, "--server.port=0", "--grpc.server.enabled=false", "--spring.jpa.show-sql=false",
+                        "--logging.level.com.example=WARN"));
+        List<String> violations;
+        try {
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/users";
+            Workload workload = new Workload(base, config.mix());
+            seed(context.getBean(UserService.class), workload, config.users());
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            LoadReport report = new LoadReport();
+            run(client, workload, config, report);
+
+            System.out.printf("%n%.0f req/s for %s after %s warm-up%n", config.rate(), config.duration(), config.warmup());
+            report.print(config.duration());
+            violations = report.violations(config, config.duration());
+            report.write(config, config.duration(), violations);
+            System.out.println("Report written to " + config.report().toAbsolutePath());
+        } finally {
+            context.close();
+        }
+
+        if (!violations.isEmpty()) {
+            System.out.println("SLOs missed:");
+            violations.forEach(violation -> System.out.println("  " + violation));
+            System.exit(1);
+        }
+        System.out.println("All SLOs met");
+        System.exit(0);
+    }
+
+    // A key given twice on the command line is read as both values joined, so the caller's wins outright
+    static String[] withDefaults(String[] args, String... defaults) {
+        List<String> merged = new ArrayList<>(List.of(args));
+        for (String option : defaults) {
+            String key = option.substring(0, option.indexOf('=') + 1);
+            if (merged.stream().noneMatch(arg -> arg.startsWith(key))) {
+                merged.add(option);
+            }
+        }
+        return merged.toArray(String[]::new);
+    }
+
+    private static void seed(UserService userService, Workload workload, int users) {
+        // Straight through the service: BCrypt dominates, so spread it over the cores
+        IntStream.range(0, users).parallel().forEach(i -> {
+            String email = workload.newEmail();
+            userService.toSaveUser(new RequestDTO("Load User", email, "Password123!"));
+            workload.created(email);
+        });
+    }
+
+    private static void run(HttpClient client, Workload workload, LoadConfig config, LoadReport report)
+            throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.rate());
+        long start = System.nanoTime();
+        long recordFrom = start + config.warmup().toNanos();
+        long end = recordFrom + config.duration().toNanos();
+        List<InFlight> inFlight = new ArrayList<>();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            // When the dispatcher falls behind, requests go out back to back until it catches up
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean recorded = intended >= recordFrom;
+            Workload.Request request = workload.next();
+            long sent = System.nanoTime();
+            AtomicBoolean settled = new AtomicBoolean();
+            CompletableFuture<?> future = client.sendAsync(request.http(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long now = System.nanoTime();
+                        if (response != null && response.statusCode() == 201 && request.operation() == Operation.CREATE) {
+                            workload.created(request.email());
+                        }
+                        if (!recorded || !settled.compareAndSet(false, true)) {
+                            return;
+                        }
+                        if (failure != null) {
+                            report.failed(request.operation(), now - intended);
+                        } else {
+                            report.record(request.operation(), now - intended, now - sent, response.statusCode());
+                        }
+                    });
+            inFlight.add(new InFlight(request.operation(), intended, recorded, settled, future));
+        }
+
+        try {
+            CompletableFuture.allOf(inFlight.stream().map(InFlight::future).toArray(CompletableFuture[]::new))
+                    .get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // Failed requests are already in the report; stragglers are counted below
+        }
+
+        // A request with no response by now has missed any sane SLO: count it as failed rather than drop it
+        long now = System.nanoTime();
+        int stragglers = 0;
+        for (InFlight request : inFlight) {
+            if (request.recorded() && request.settled().compareAndSet(false, true)) {
+                report.failed(request.operation(), now - request.intended());
+                stragglers++;
+            }
+        }
+        if (stragglers > 0) {
+            System.out.printf("%d requests still in flight after 30 s counted as failed%n", stragglers);
+        }
+    }
+
+    private record InFlight(Operation operation, long intended, boolean recorded, AtomicBoolean settled,
+                            CompletableFuture<?> future) {
+    }
+}
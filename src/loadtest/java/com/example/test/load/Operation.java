@@ -0,0 +1,9 @@
+package com.example.test.load;
+
+enum Operation {
+    CREATE, PREVIEW, UPDATE, DELETE, LIST;
+
+    String label() {
+        return name().toLowerCase();
+    }
+}
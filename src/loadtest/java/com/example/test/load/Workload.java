@@ -0,0 +1,98 @@
+package com.example.test.load;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks the next operation from the configured mix and builds its request. Preview, update and
+ * delete work on users known to exist; a delete takes its user out of the pool before it is sent
+ * so no later request targets it. With an empty pool those operations fall back to a create.
+ */
+class Workload {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final String PASSWORD = "Password123!";
+
+    private final String baseUri;
+    private final Operation[] table;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<String> pool = new ArrayList<>();
+
+    Workload(String baseUri, Map<Operation, Integer> mix) {
+        this.baseUri = baseUri;
+        List<Operation> table = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        });
+        this.table = table.toArray(Operation[]::new);
+    }
+
+    String newEmail() {
+        return "load-" + sequence.incrementAndGet() + "@example.com";
+    }
+
+    void created(String email) {
+        synchronized (pool) {
+            pool.add(email);
+        }
+    }
+
+    /**
+     * Only called from the dispatcher thread.
+     */
+    Request next() {
+        Operation operation = table[random.nextInt(table.length)];
+        if (operation == Operation.CREATE || operation == Operation.LIST) {
+            return build(operation, operation == Operation.CREATE ? newEmail() : null);
+        }
+        String email;
+        synchronized (pool) {
+            if (pool.isEmpty()) {
+                return build(Operation.CREATE, newEmail());
+            }
+            int index = random.nextInt(pool.size());
+            email = pool.get(index);
+            if (operation == Operation.DELETE) {
+                pool.set(index, pool.get(pool.size() - 1));
+                pool.remove(pool.size() - 1);
+            }
+        }
+        return build(operation, email);
+    }
+
+    Request build(Operation operation, String email) {
+        String query = email != null ? "?email=" + URLEncoder.encode(email, StandardCharsets.UTF_8) : "";
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(TIMEOUT);
+        HttpRequest request = switch (operation) {
+            case CREATE -> builder.uri(URI.create(baseUri + "/create"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body("Load User", email)))
+                    .build();
+            case PREVIEW -> builder.uri(URI.create(baseUri + "/preview" + query)).GET().build();
+            case UPDATE -> builder.uri(URI.create(baseUri + "/update" + query))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body("Load User " + sequence.get(), email)))
+                    .build();
+            case DELETE -> builder.uri(URI.create(baseUri + "/delete" + query)).DELETE().build();
+            case LIST -> builder.uri(URI.create(baseUri + "/all")).GET().build();
+        };
+        return new Request(operation, email, request);
+    }
+
+    private static String body(String name, String email) {
+        return "{\"name\":\"" + name + "\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    record Request(Operation operation, String email, HttpRequest http) {
+    }
+}
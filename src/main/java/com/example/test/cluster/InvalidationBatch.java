@@ -0,0 +1,10 @@
+package com.example.test.cluster;
+
+import java.util.List;
+
+/**
+ * Emails whose cached state is stale after writes on {@code nodeId}. Versions increase by one per
+ * batch and node, so receivers can detect lost or repeated messages.
+ */
+public record InvalidationBatch(String nodeId, long version, List<String> emails) {
+}
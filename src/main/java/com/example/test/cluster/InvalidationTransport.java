@@ -0,0 +1,24 @@
+package com.example.test.cluster;
+
+/**
+ * Carries {@link InvalidationBatch}es between application instances for {@link UserInvalidationBus}.
+ * Implementations are selected with {@code users.invalidation.transport}.
+ */
+public interface InvalidationTransport {
+
+    void start(Listener listener);
+
+    void publish(InvalidationBatch batch);
+
+    void stop();
+
+    interface Listener {
+
+        void onBatch(InvalidationBatch batch);
+
+        /**
+         * Called when batches may have been lost, so everything cached locally must be dropped.
+         */
+        void onResync();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.test.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares invalidations through a change-version table in the user database. Every email of a
+ * batch becomes one row with an identity version; each instance polls for rows above the highest
+ * version it has seen. Rows older than {@code users.invalidation.jdbc.retention} are pruned.
+ */
+@Component
+@ConditionalOnProperty(name = "users.invalidation.transport", havingValue = "jdbc")
+public class JdbcInvalidationTransport implements InvalidationTransport {
+    private static final Logger log = LoggerFactory.getLogger(JdbcInvalidationTransport.class);
+
+    static final String TABLE = "user_invalidations";
+    // Identity values are assigned before commit, so a lower version can become visible after a
+    // higher one. Re-reading this many versions below the watermark catches such late rows.
+    private static final long REORDER_WINDOW = 256;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long pollIntervalMillis;
+    private final Duration retention;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-invalidation-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched by the poller thread
+    private long watermark;
+    private final NavigableSet<Long> applied = new TreeSet<>();
+
+    public JdbcInvalidationTransport(JdbcTemplate jdbcTemplate,
+                                     @Value("${users.invalidation.jdbc.poll-interval:PT0.2S}") Duration pollInterval,
+                                     @Value("${users.invalidation.jdbc.retention:PT1H}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pollIntervalMillis = Math.max(1, pollInterval.toMillis());
+        this.retention = retention;
+    }
+
+    @Override
+    public void start(Listener listener) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                + "version BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "node_id VARCHAR(64) NOT NULL, "
+                + "node_version BIGINT NOT NULL, "
+                + "email VARCHAR(255) NOT NULL, "
+                + "created_at TIMESTAMP NOT NULL)");
+        // Caches start empty, so older rows do not matter to a new instance
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(version) FROM " + TABLE, Long.class);
+        watermark = max != null ? max : 0;
+
+        poller.scheduleWithFixedDelay(() -> pollQuietly(listener), pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        long pruneMillis = Math.max(pollIntervalMillis, retention.toMillis() / 4);
+        poller.scheduleWithFixedDelay(this::pruneQuietly, pruneMillis, pruneMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(InvalidationBatch batch) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate("INSERT INTO " + TABLE + " (node_id, node_version, email, created_at) VALUES (?, ?, ?, ?)",
+                batch.emails(), batch.emails().size(), (statement, email) -> {
+                    statement.setString(1, batch.nodeId());
+                    statement.setLong(2, batch.version());
+                    statement.setString(3, email);
+                    statement.setTimestamp(4, now);
+                });
+    }
+
+    @Override
+    public void stop() {
+        poller.shutdownNow();
+    }
+
+    void poll(Listener listener) {
+        List<Row> rows = jdbcTemplate.query("SELECT version, node_id, node_version, email FROM " + TABLE
+                        + " WHERE version > ? ORDER BY version",
+                (resultSet, rowNum) -> new Row(resultSet.getLong(1), resultSet.getString(2),
+                        resultSet.getLong(3), resultSet.getString(4)),
+                watermark - REORDER_WINDOW);
+
+        Map<String, InvalidationBatch> batches = new LinkedHashMap<>();
+        for (Row row : rows) {
+            if (!applied.add(row.version())) {
+                continue;
+            }
+            watermark = Math.max(watermark, row.version());
+            batches.computeIfAbsent(row.nodeId() + '/' + row.nodeVersion(),
+                            key -> new InvalidationBatch(row.nodeId(), row.nodeVersion(), new ArrayList<>()))
+                    .emails().add(row.email());
+        }
+        applied.headSet(watermark - REORDER_WINDOW, true).clear();
+        batches.values().forEach(listener::onBatch);
+    }
+
+    private void pollQuietly(Listener listener) {
+        try {
+            poll(listener);
+        } catch (RuntimeException e) {
+            // The watermark is unchanged, so the next poll picks up what this one missed
+            log.warn("Polling user invalidations failed", e);
+        }
+    }
+
+    private void pruneQuietly() {
+        try {
+            jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE created_at < ?",
+                    Timestamp.from(Instant.now().minus(retention)));
+        } catch (RuntimeException e) {
+            log.warn("Pruning user invalidations failed", e);
+        }
+    }
+
+    private record Row(long version, String nodeId, long nodeVersion, String email) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.test.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.StandardSocketOptions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends invalidation batches as UDP multicast datagrams on the local network. Datagrams can be
+ * lost or reordered; a version gap from a known node triggers {@link Listener#onResync()} and
+ * repeated or older versions are ignored.
+ */
+@Component
+@ConditionalOnProperty(name = "users.invalidation.transport", havingValue = "multicast")
+public class MulticastInvalidationTransport implements InvalidationTransport {
+    private static final Logger log = LoggerFactory.getLogger(MulticastInvalidationTransport.class);
+
+    static final int MAGIC = 0x55494E56;
+    private static final int MAX_DATAGRAM = 65_507;
+
+    private final InetSocketAddress group;
+    private final String interfaceName;
+    private final int ttl;
+    private final Map<String, Long> lastVersions = new ConcurrentHashMap<>();
+    private volatile MulticastSocket socket;
+    private volatile Thread receiver;
+
+    public MulticastInvalidationTransport(@Value("${users.invalidation.multicast.group:239.255.42.99}") String group,
+                                          @Value("${users.invalidation.multicast.port:45990}") int port,
+                                          @Value("${users.invalidation.multicast.interface:}") String interfaceName,
+                                          @Value("${users.invalidation.multicast.ttl:1}") int ttl) {
+        this.group = new InetSocketAddress(group, port);
+        this.interfaceName = interfaceName;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public void start(Listener listener) {
+        try {
+            MulticastSocket multicastSocket = new MulticastSocket(null);
+            multicastSocket.setReuseAddress(true);
+            multicastSocket.bind(new InetSocketAddress(group.getPort()));
+            multicastSocket.setTimeToLive(ttl);
+            // Loopback lets several instances on one host see each other
+            multicastSocket.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+            NetworkInterface networkInterface = interfaceName.isBlank() ? null : NetworkInterface.getByName(interfaceName);
+            if (networkInterface != null) {
+                multicastSocket.setNetworkInterface(networkInterface);
+            }
+            multicastSocket.joinGroup(group, networkInterface);
+            socket = multicastSocket;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to join invalidation group " + group, e);
+        }
+
+        receiver = Thread.ofPlatform().daemon().name("user-invalidation-multicast").start(() -> receive(listener));
+    }
+
+    @Override
+    public void publish(InvalidationBatch batch) {
+        byte[] bytes = encode(batch);
+        try {
+            socket.send(new DatagramPacket(bytes, bytes.length, group));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        MulticastSocket current = socket;
+        socket = null;
+        if (current != null) {
+            // Closing the socket unblocks the receiver thread
+            current.close();
+        }
+        Thread thread = receiver;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void receive(Listener listener) {
+        byte[] buffer = new byte[MAX_DATAGRAM];
+        while (true) {
+            MulticastSocket current = socket;
+            if (current == null) {
+                return;
+            }
+            try {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                current.receive(packet);
+                InvalidationBatch batch = decode(packet.getData(), packet.getOffset(), packet.getLength());
+                if (batch != null) {
+                    deliver(batch, listener);
+                }
+            } catch (SocketException e) {
+                // Socket closed by stop()
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Dropping unreadable invalidation datagram", e);
+            }
+        }
+    }
+
+    void deliver(InvalidationBatch batch, Listener listener) {
+        Long previous = lastVersions.get(batch.nodeId());
+        if (previous != null && batch.version() <= previous) {
+            return;
+        }
+        lastVersions.put(batch.nodeId(), batch.version());
+        if (previous != null && batch.version() > previous + 1) {
+            listener.onResync();
+        }
+        listener.onBatch(batch);
+    }
+
+    static byte[] encode(InvalidationBatch batch) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + batch.emails().size() * 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeUTF(batch.nodeId());
+            out.writeLong(batch.version());
+            out.writeShort(batch.emails().size());
+            for (String email : batch.emails()) {
+                out.writeUTF(email);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (bytes.size() > MAX_DATAGRAM) {
+            throw new IllegalArgumentException("Invalidation batch too large for one datagram: " + bytes.size() + " bytes");
+        }
+        return bytes.toByteArray();
+    }
+
+    static InvalidationBatch decode(byte[] data, int offset, int length) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset, length));
+        if (in.readInt() != MAGIC) {
+            return null;
+        }
+        String nodeId = in.readUTF();
+        long version = in.readLong();
+        int count = in.readUnsignedShort();
+        List<String> emails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            emails.add(in.readUTF());
+        }
+        return new InvalidationBatch(nodeId, version, emails);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.test.cluster;
+
+import com.example.test.events.UserChangedEvent;
+import com.example.test.services.EmailBloomFilter;
+import com.example.test.services.OffHeapUserStore;
+import com.example.test.services.UserCache;
+import com.example.test.services.UserIdIndex;
+import com.example.test.services.UserListCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broadcasts the emails touched by committed writes to the other instances and applies their
+ * broadcasts to the local caches. Emails are collected for {@code users.invalidation.batch-window}
+ * and sent in batches of at most {@code users.invalidation.max-batch}. Without a configured
+ * {@link InvalidationTransport} the bus does nothing.
+ */
+@Component
+public class UserInvalidationBus implements SmartLifecycle, InvalidationTransport.Listener {
+    private static final Logger log = LoggerFactory.getLogger(UserInvalidationBus.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final InvalidationTransport transport;
+    private final UserCache userCache;
+    private final UserListCache userListCache;
+    private final EmailBloomFilter emailFilter;
+    private final OffHeapUserStore offHeapUserStore;
+    private final UserIdIndex userIdIndex;
+    private final long batchWindowMillis;
+    private final int maxBatch;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-invalidation-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running;
+
+    private final Counter sent;
+    private final Counter received;
+    private final Counter resyncs;
+
+    public UserInvalidationBus(ObjectProvider<InvalidationTransport> transport,
+                               UserCache userCache,
+                               UserListCache userListCache,
+                               EmailBloomFilter emailFilter,
+                               OffHeapUserStore offHeapUserStore,
+                               UserIdIndex userIdIndex,
+                               @Value("${users.invalidation.batch-window:PT0.05S}") Duration batchWindow,
+                               @Value("${users.invalidation.max-batch:32}") int maxBatch,
+                               MeterRegistry meterRegistry) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("Invalidation batch size must be positive");
+        }
+        this.transport = transport.getIfAvailable();
+        this.userCache = userCache;
+        this.userListCache = userListCache;
+        this.emailFilter = emailFilter;
+        this.offHeapUserStore = offHeapUserStore;
+        this.userIdIndex = userIdIndex;
+        this.batchWindowMillis = Math.max(1, batchWindow.toMillis());
+        this.maxBatch = maxBatch;
+        this.sent = meterRegistry.counter("users.invalidation.batches", "direction", "sent");
+        this.received = meterRegistry.counter("users.invalidation.batches", "direction", "received");
+        this.resyncs = meterRegistry.counter("users.invalidation.resyncs");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (transport == null) {
+            return;
+        }
+        if (event.email() != null) {
+            pending.add(event.email());
+        }
+        if (event.previousEmail() != null) {
+            pending.add(event.previousEmail());
+        }
+    }
+
+    @Override
+    public void onBatch(InvalidationBatch batch) {
+        if (nodeId.equals(batch.nodeId())) {
+            return;
+        }
+        userCache.invalidate(batch.emails());
+        offHeapUserStore.invalidate(batch.emails());
+        userListCache.invalidate();
+        // A create elsewhere must never look like a definite miss here
+        batch.emails().forEach(emailFilter::put);
+        // The batch says which emails changed, not how; the database decides until the next rebuild
+        userIdIndex.markUnknown(batch.emails());
+        received.increment();
+    }
+
+    @Override
+    public void onResync() {
+        log.warn("Invalidation messages were lost; dropping local user caches");
+        userCache.invalidateAll();
+        offHeapUserStore.invalidateAll();
+        userListCache.invalidate();
+        emailFilter.requestRebuild();
+        userIdIndex.reset();
+        resyncs.increment();
+    }
+
+    void flush() {
+        List<String> emails = new ArrayList<>(maxBatch);
+        Iterator<String> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            emails.add(iterator.next());
+            iterator.remove();
+            if (emails.size() == maxBatch) {
+                publish(emails);
+                emails = new ArrayList<>(maxBatch);
+            }
+        }
+        if (!emails.isEmpty()) {
+            publish(emails);
+        }
+    }
+
+    private void publish(List<String> emails) {
+        try {
+            transport.publish(new InvalidationBatch(nodeId, version.incrementAndGet(), List.copyOf(emails)));
+            sent.increment();
+        } catch (RuntimeException e) {
+            // Retried with the next flush; receivers see the version gap and resync
+            log.warn("Failed to publish {} user invalidations", emails.size(), e);
+            pending.addAll(emails);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("User invalidation flush failed", e);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Whether writes on other instances reach the local caches and indexes. Without it a local
+     * "absent" answer says nothing about users created elsewhere.
+     */
+    public boolean isActive() {
+        return running && transport != null;
+    }
+
+    @Override
+    public void start() {
+        if (transport != null) {
+            transport.start(this);
+            flusher.scheduleWithFixedDelay(this::flushQuietly, batchWindowMillis, batchWindowMillis, TimeUnit.MILLISECONDS);
+            log.info("User invalidation bus started as node {}", nodeId);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flusher.shutdownNow();
+        if (transport != null) {
+            flushQuietly();
+            transport.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
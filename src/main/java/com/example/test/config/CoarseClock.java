@@ -0,0 +1,36 @@
+package com.example.test.config;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Wall clock with one-second resolution. Readers within the same second share one cached
+ * {@link LocalDateTime} instead of resolving the time zone and allocating a new instance per call.
+ */
+public final class CoarseClock {
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static volatile Tick current = Tick.of(System.currentTimeMillis() / 1000);
+
+    private CoarseClock() {
+    }
+
+    public static LocalDateTime now() {
+        long second = System.currentTimeMillis() / 1000;
+        Tick tick = current;
+        if (tick.second != second) {
+            // Racing refreshes compute the same value, so the last write wins harmlessly
+            tick = Tick.of(second);
+            current = tick;
+        }
+        return tick.time;
+    }
+
+    private record Tick(long second, LocalDateTime time) {
+        static Tick of(long second) {
+            return new Tick(second, LocalDateTime.ofEpochSecond(second, 0,
+                    ZONE.getRules().getOffset(Instant.ofEpochSecond(second))));
+        }
+    }
+}
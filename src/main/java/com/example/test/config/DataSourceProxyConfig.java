@@ -0,0 +1,77 @@
+package com.example.test.config;
+
+import com.example.test.slowlog.RequestProfile;
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import net.ttddyy.observation.tracing.DataSourceObservationListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Configuration
+public class DataSourceProxyConfig {
+
+    // Static so the post-processor is registered before the DataSource bean is created. The
+    // observation registry is looked up lazily for the same reason; it gives each query its own span.
+    @Bean
+    public static BeanPostProcessor statementCountingDataSource(ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    DataSourceObservationListener observationListener = new DataSourceObservationListener(
+                            () -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new StatementCountingListener())
+                            .listener(new RequestProfileListener())
+                            .listener(observationListener)
+                            .methodListener(observationListener)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * One execution is one round-trip, so a JDBC batch counts once however many rows it carries.
+     */
+    static final class StatementCountingListener implements QueryExecutionListener {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            SqlStatementCounter.increment();
+        }
+    }
+
+    /**
+     * Adds each statement to the slow-request profile. The SQL text is the prepared statement, so
+     * no bound values end up in the log.
+     */
+    static final class RequestProfileListener implements QueryExecutionListener {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            String sql = queryInfoList.size() == 1 ? queryInfoList.get(0).getQuery()
+                    : queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            RequestProfile.record("sql", sql, TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime()));
+        }
+    }
+}
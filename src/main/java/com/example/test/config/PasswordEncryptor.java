@@ -1,12 +1,49 @@
 package com.example.test.config;
 
+import com.example.test.jfr.PasswordHashEvent;
+import com.example.test.slowlog.RequestProfile;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
 public class PasswordEncryptor {
     private static final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
 
+    // Registered in the global registry, which Spring Boot links to its own registries
+    private static final Timer encryptTimer = Timer.builder("users.password.hashing")
+            .tag("operation", "encrypt")
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+    private static final Timer matchesTimer = Timer.builder("users.password.hashing")
+            .tag("operation", "matches")
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+
+    // Set by TracingConfig; a no-op until then so plain unit tests pay nothing
+    private static volatile Tracer tracer = Tracer.NOOP;
+
+    // BCrypt runs on the calling thread, so the calls in flight are the hashing queue
+    private static final AtomicInteger inFlight = new AtomicInteger();
+
+    public static void useTracer(Tracer newTracer) {
+        tracer = newTracer != null ? newTracer : Tracer.NOOP;
+    }
+
+    public static int inFlight() {
+        return inFlight.get();
+    }
+
     public static String encrypt(String rawPassword) {
-        return encoder.encode(rawPassword);
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        String hash = traced("password.encrypt", () -> encryptTimer.record(() -> encoder.encode(rawPassword)));
+        event.finish("encrypt", hash);
+        return hash;
     }
 
     public static boolean matches(String rawPassword, String encryptedPassword) {
@@ -16,6 +53,25 @@ public class PasswordEncryptor {
         if (encryptedPassword == null) {
             throw new IllegalArgumentException("Encrypted password cannot be null");
         }
-        return encoder.matches(rawPassword, encryptedPassword);
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        boolean matches = traced("password.matches",
+                () -> matchesTimer.record(() -> encoder.matches(rawPassword, encryptedPassword)));
+        event.finish("matches", encryptedPassword);
+        return matches;
+    }
+
+    private static <T> T traced(String name, Supplier<T> work) {
+        Tracer current = tracer;
+        Span span = current.nextSpan().name(name).start();
+        long start = System.nanoTime();
+        inFlight.incrementAndGet();
+        try (Tracer.SpanInScope ignored = current.withSpan(span)) {
+            return work.get();
+        } finally {
+            inFlight.decrementAndGet();
+            RequestProfile.record("hashing", name, System.nanoTime() - start);
+            span.end();
+        }
     }
 }
\ No newline at end of file
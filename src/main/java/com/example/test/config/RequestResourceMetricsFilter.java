@@ -0,0 +1,125 @@
+package com.example.test.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the bytes allocated and the CPU time used by the thread handling each request as
+ * {@code users.request.allocated} and {@code users.request.cpu}, tagged with the HTTP method, the
+ * matched URI pattern and the status. Work handed to other threads, such as cache refreshes, is
+ * not included; requests that go async (the change feed) are not recorded.
+ */
+@Component
+public class RequestResourceMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final com.sun.management.ThreadMXBean threads;
+    private final boolean allocation;
+    private final boolean cpu;
+    // One pair of meters per method, pattern and status, so the builders only run on first use
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public RequestResourceMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) {
+            threads = bean;
+            allocation = enableAllocation(bean);
+            cpu = enableCpu(bean);
+        } else {
+            threads = null;
+            allocation = false;
+            cpu = false;
+        }
+    }
+
+    private static boolean enableAllocation(com.sun.management.ThreadMXBean bean) {
+        if (!bean.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+        if (!bean.isThreadAllocatedMemoryEnabled()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return true;
+    }
+
+    private static boolean enableCpu(com.sun.management.ThreadMXBean bean) {
+        if (!bean.isCurrentThreadCpuTimeSupported()) {
+            return false;
+        }
+        if (!bean.isThreadCpuTimeEnabled()) {
+            bean.setThreadCpuTimeEnabled(true);
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!allocation && !cpu) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long allocatedBefore = allocation ? threads.getCurrentThreadAllocatedBytes() : 0;
+        long cpuBefore = cpu ? threads.getCurrentThreadCpuTime() : 0;
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Read the counters first so recording the metrics is not charged to the request
+            long allocated = allocation ? threads.getCurrentThreadAllocatedBytes() - allocatedBefore : 0;
+            long cpuNanos = cpu ? threads.getCurrentThreadCpuTime() - cpuBefore : 0;
+            if (!request.isAsyncStarted()) {
+                record(request, response, allocated, cpuNanos);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long allocated, long cpuNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Meters meters = meters(request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN",
+                response.getStatus());
+        if (meters.allocated() != null) {
+            meters.allocated().record(allocated);
+        }
+        if (meters.cpu() != null) {
+            meters.cpu().record(cpuNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Meters meters(String method, String uri, int status) {
+        return meters.computeIfAbsent(method + ' ' + uri + ' ' + status, key -> {
+            String statusTag = Integer.toString(status);
+            DistributionSummary allocated = !allocation ? null : DistributionSummary.builder("users.request.allocated")
+                    .description("Bytes allocated by the thread handling the request")
+                    .baseUnit("bytes")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .tag("status", statusTag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            Timer cpuTime = !cpu ? null : Timer.builder("users.request.cpu")
+                    .description("CPU time used by the thread handling the request")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .tag("status", statusTag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            return new Meters(allocated, cpuTime);
+        });
+    }
+
+    private record Meters(DistributionSummary allocated, Timer cpu) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.test.config;
+
+/**
+ * Counts the JDBC statements executed by the current thread between {@link #start()} and
+ * {@link #stop()}. Statements on threads that are not counting, such as background rebuilds,
+ * are ignored.
+ */
+public final class SqlStatementCounter {
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static void start() {
+        COUNT.set(new long[1]);
+    }
+
+    static void increment() {
+        long[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    /**
+     * Returns the statements counted so far, or 0 if the thread is not counting.
+     */
+    public static long current() {
+        long[] count = COUNT.get();
+        return count != null ? count[0] : 0;
+    }
+
+    public static long stop() {
+        long count = current();
+        COUNT.remove();
+        return count;
+    }
+}
@@ -2,27 +2,78 @@ package com.example.test.controller;
 
 import com.example.test.dto.RequestDTO;
 import com.example.test.dto.ResponseDTO;
+import com.example.test.config.WebConfig;
+import com.example.test.services.IdempotencyStore;
+import com.example.test.services.OffHeapUserStore;
+import com.example.test.services.UserChangeFeed;
+import com.example.test.services.UserListCache;
 import com.example.test.services.UserService;
+import com.example.test.slowlog.RequestProfile;
 import jakarta.validation.Valid;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 @CrossOrigin(origins = "*")
 @RestController
 @RequestMapping("/users")
 public class UserController {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    // Compiled once instead of on every call, as String.matches would
+    static final Pattern EMAIL_PATTERN = Pattern.compile("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+    private static final SecretKeySpec FINGERPRINT_KEY = newFingerprintKey();
+    // Mac is not thread-safe; doFinal resets it for the next request on the same thread
+    private static final ThreadLocal<Mac> FINGERPRINT_MAC = ThreadLocal.withInitial(UserController::newFingerprintMac);
+
     private final UserService userService;
+    private final IdempotencyStore idempotencyStore;
+    private final UserListCache userListCache;
+    private final UserChangeFeed userChangeFeed;
+    private final OffHeapUserStore offHeapUserStore;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, IdempotencyStore idempotencyStore,
+                          UserListCache userListCache, UserChangeFeed userChangeFeed,
+                          OffHeapUserStore offHeapUserStore) {
         this.userService = userService;
+        this.idempotencyStore = idempotencyStore;
+        this.userListCache = userListCache;
+        this.userChangeFeed = userChangeFeed;
+        this.offHeapUserStore = offHeapUserStore;
     }
 
     @PostMapping("/create")
-    public ResponseEntity<Void> toCreateUser(@Valid @RequestBody RequestDTO dto) {
-        userService.toSaveUser(dto);
-        return ResponseEntity.status(201).build();
+    public ResponseEntity<Void> toCreateUser(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody RequestDTO dto) {
+        if (idempotencyKey == null) {
+            userService.toSaveUser(dto);
+            return ResponseEntity.status(201).build();
+        }
+
+        // Retries replay the recorded outcome instead of hashing the password again
+        boolean replayed = idempotencyStore.execute(idempotencyKey, fingerprint(dto), () -> userService.toSaveUser(dto));
+        return ResponseEntity.status(201)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(replayed))
+                .build();
     }
 
     @PutMapping("/update")  // ✅ Fixed: removed ?email={email}
@@ -40,25 +91,73 @@ public class UserController {
     }
 
     @GetMapping("/preview")  // ✅ Fixed: removed ?email={email}
-    public ResponseEntity<ResponseDTO> toPreviewUser(@RequestParam String email) {
+    public ResponseEntity<?> toPreviewUser(
+            @RequestParam String email,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         validateEmailParameter(email);
 
-        ResponseDTO result = userService.toPreviewUser(email);
-        return ResponseEntity.ok(result);
+        if (!prefersCachedJson(accept)) {
+            ResponseDTO result = userService.toPreviewUser(email);
+            return ResponseEntity.ok(result);
+        }
+
+        // JSON clients get the serialized record kept off-heap; misses load through UserCache
+        ByteArrayInputStream json = offHeapUserStore.open(email, userService::toPreviewUser);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(json.available())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(new InputStreamResource(json));
+    }
+
+    @RequestMapping(value = "/preview", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> toCheckUserExists(@RequestParam String email) {
+        validateEmailParameter(email);
+
+        return userService.userExists(email) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
     }
 
     @GetMapping("/all")
-    public ResponseEntity<java.util.List<ResponseDTO>> toPreviewAllUsers() {
+    public ResponseEntity<?> toPreviewAllUsers(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-        List<ResponseDTO> result = userService.toPreviewAllUsers();
-        if (result.isEmpty()) {
+        if (!prefersCachedJson(accept)) {
+            List<ResponseDTO> result = userService.toPreviewAllUsers();
+            if (result.isEmpty()) {
+                return ResponseEntity.noContent().build();
+            } else {
+                return ResponseEntity.ok(result);
+            }
+        }
+
+        // JSON clients get the pre-serialized body without touching the database
+        UserListCache.Body body = userListCache.get(userService::toPreviewAllUsers);
+        if (body.isEmpty()) {
             return ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.ok(result);
         }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        String coding = gzipCoding(acceptEncoding);
+        if (coding != null) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, coding).body(body.getGzip());
+        }
+        return response.body(body.getJson());
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter toStreamChanges(@RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        UserChangeFeed.EventId resumeAfter = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            resumeAfter = UserChangeFeed.EventId.parse(lastEventId);
+        }
+        return userChangeFeed.subscribe(resumeAfter);
     }
 
     private void validateEmailParameter(String email) {
+        long start = System.nanoTime();
         // Check if email is null or empty
         if (email == null || email.trim().isEmpty()) {
             throw new IllegalArgumentException("Email parameter is required and cannot be empty");
@@ -68,10 +167,94 @@ public class UserController {
         if (!isValidEmailFormat(email)) {
             throw new IllegalArgumentException("Invalid email format");
         }
+        RequestProfile.record("validation", "email", System.nanoTime() - start);
+    }
+
+    private boolean prefersCachedJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        boolean binaryRequested = accepted.stream().anyMatch(type ->
+                type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)
+                        || type.equalsTypeAndSubtype(WebConfig.APPLICATION_SMILE));
+        return !binaryRequested && accepted.stream().anyMatch(type -> type.includes(MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * Returns the name under which the client accepts gzip ({@code gzip} or the legacy
+     * {@code x-gzip}), or {@code null} if it does not. An explicit entry wins over {@code *}, and a
+     * coding with {@code q=0} is not acceptable (RFC 9110, section 12.5.3).
+     */
+    static String gzipCoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        String explicit = null;
+        double explicitQ = -1;
+        double wildcardQ = -1;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parameters = entry.split(";");
+            String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+            double q = qValue(parameters);
+            if ((coding.equals("gzip") || coding.equals("x-gzip")) && q > explicitQ) {
+                explicit = coding;
+                explicitQ = q;
+            } else if (coding.equals("*")) {
+                wildcardQ = Math.max(wildcardQ, q);
+            }
+        }
+        if (explicit != null) {
+            return explicitQ > 0 ? explicit : null;
+        }
+        return wildcardQ > 0 ? "gzip" : null;
+    }
+
+    // A malformed weight makes the coding unacceptable rather than preferred
+    private static double qValue(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q' && parameter.charAt(1) == '=') {
+                try {
+                    double q = Double.parseDouble(parameter.substring(2).trim());
+                    return q >= 0 && q <= 1 ? q : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    // Keyed, so the stored fingerprint cannot be used to guess the password offline. The key only
+    // has to outlive the idempotency store, which lives in this process.
+    static String fingerprint(RequestDTO dto) {
+        Mac mac = FINGERPRINT_MAC.get();
+        mac.update(String.valueOf(dto.getName()).getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(String.valueOf(dto.getEmail()).getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(String.valueOf(dto.getPassword()).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(mac.doFinal());
+    }
+
+    private static SecretKeySpec newFingerprintKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return new SecretKeySpec(key, FINGERPRINT_ALGORITHM);
+    }
+
+    private static Mac newFingerprintMac() {
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(FINGERPRINT_KEY);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(FINGERPRINT_ALGORITHM + " is not available", e);
+        }
     }
 
-    private boolean isValidEmailFormat(String email) {
-        String emailRegex = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$";
-        return email.matches(emailRegex);
+    public static boolean isValidEmailFormat(String email) {
+        return EMAIL_PATTERN.matcher(email).matches();
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.test.dto;
 
+import com.example.test.config.CoarseClock;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import java.time.LocalDateTime;
@@ -16,7 +17,8 @@ public class ErrorResponseDTO {
     private List<String> details;
 
     public ErrorResponseDTO() {
-        this.timestamp = LocalDateTime.now();
+        // Serialized with second precision, so a per-second cached value is enough
+        this.timestamp = CoarseClock.now();
     }
 
     public ErrorResponseDTO(int status, String error, String message, String path) {
@@ -0,0 +1,30 @@
+package com.example.test.events;
+
+import com.example.test.model.User;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link com.example.test.services.UserService} for every user mutation.
+ * Listeners that must only see committed data use {@code @TransactionalEventListener}.
+ */
+public record UserChangedEvent(Type type, UUID id, String email, String previousEmail) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static UserChangedEvent created(User user) {
+        return new UserChangedEvent(Type.CREATED, user.getId(), user.getEmail(), null);
+    }
+
+    public static UserChangedEvent updated(User user, String previousEmail) {
+        return new UserChangedEvent(Type.UPDATED, user.getId(), user.getEmail(), previousEmail);
+    }
+
+    public static UserChangedEvent deleted(User user) {
+        return new UserChangedEvent(Type.DELETED, user.getId(), user.getEmail(), null);
+    }
+}
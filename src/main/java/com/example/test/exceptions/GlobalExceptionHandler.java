@@ -1,7 +1,11 @@
 package com.example.test.exceptions;
 
 import com.example.test.dto.ErrorResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -11,9 +15,14 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    // Looked up once per exception type and status instead of on every error
+    private static final Map<ErrorKey, Counter> COUNTERS = new ConcurrentHashMap<>();
 
     // Handle UserNotFoundException
     @ExceptionHandler(UserNotFoundException.class)
@@ -27,6 +36,7 @@ public class GlobalExceptionHandler {
                 request.getRequestURI()
         );
 
+        count(ex, HttpStatus.NOT_FOUND);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
@@ -42,6 +52,23 @@ public class GlobalExceptionHandler {
                 request.getRequestURI()
         );
 
+        count(ex, HttpStatus.CONFLICT);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    // Handle RequestInProgressException
+    @ExceptionHandler(RequestInProgressException.class)
+    public ResponseEntity<ErrorResponseDTO> handleRequestInProgressException(
+            RequestInProgressException ex, HttpServletRequest request) {
+
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        count(ex, HttpStatus.CONFLICT);
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
@@ -63,6 +90,7 @@ public class GlobalExceptionHandler {
                 details
         );
 
+        count(ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
@@ -78,6 +106,7 @@ public class GlobalExceptionHandler {
                 request.getRequestURI()
         );
 
+        count(ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
@@ -93,6 +122,7 @@ public class GlobalExceptionHandler {
                 request.getRequestURI()
         );
 
+        count(ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
@@ -108,6 +138,7 @@ public class GlobalExceptionHandler {
                 request.getRequestURI()
         );
 
+        count(ex, HttpStatus.INTERNAL_SERVER_ERROR);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
@@ -123,6 +154,24 @@ public class GlobalExceptionHandler {
                 request.getRequestURI()
         );
 
+        count(ex, HttpStatus.INTERNAL_SERVER_ERROR);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
-}
\ No newline at end of file
+
+    // The global registry keeps the handler constructible without Spring, as the tests do.
+    // Client errors repeat at request rate, so they are logged at DEBUG and rate-capped by the
+    // logging pipeline; server errors keep their stack trace.
+    private static void count(Exception ex, HttpStatus status) {
+        COUNTERS.computeIfAbsent(new ErrorKey(ex.getClass(), status), key -> Metrics.counter("users.errors",
+                "exception", key.exception().getSimpleName(),
+                "status", String.valueOf(key.status().value()))).increment();
+        if (status.is5xxServerError()) {
+            log.error("Request failed with {}", status.value(), ex);
+        } else {
+            log.debug("Request rejected with {}: {}", status.value(), ex.getMessage());
+        }
+    }
+
+    private record ErrorKey(Class<?> exception, HttpStatus status) {
+    }
+}
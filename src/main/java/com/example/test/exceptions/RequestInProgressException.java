@@ -0,0 +1,11 @@
+package com.example.test.exceptions;
+
+public class RequestInProgressException extends UserException {
+    public RequestInProgressException(String message) {
+        super(message);
+    }
+
+    public RequestInProgressException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.test.exceptions;
 
+/**
+ * Base class for expected user outcomes such as unknown or duplicate emails. These are control
+ * flow rather than faults, so the message-only constructor skips stack trace capture and
+ * suppression bookkeeping; exceptions wrapping a cause keep their full stack trace.
+ */
 public abstract class UserException extends RuntimeException {
     public UserException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public UserException(String message, Throwable cause) {
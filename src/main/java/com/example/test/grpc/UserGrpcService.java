@@ -0,0 +1,178 @@
+package com.example.test.grpc;
+
+import com.example.test.controller.UserController;
+import com.example.test.dto.RequestDTO;
+import com.example.test.dto.ResponseDTO;
+import com.example.test.exceptions.DuplicateUserException;
+import com.example.test.exceptions.UserNotFoundException;
+import com.example.test.grpc.proto.CreateUserRequest;
+import com.example.test.grpc.proto.UpdateUserRequest;
+import com.example.test.grpc.proto.UserEmailRequest;
+import com.example.test.grpc.proto.UserReply;
+import com.example.test.grpc.proto.UsersGrpc;
+import com.example.test.model.User;
+import com.example.test.services.UserService;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Empty;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * gRPC counterpart of {@link com.example.test.controller.UserController}. Every call delegates to
+ * {@link UserService}; domain exceptions are mapped to gRPC status codes.
+ */
+@Component
+public class UserGrpcService extends UsersGrpc.UsersImplBase {
+    private final UserService userService;
+    private final Validator validator;
+
+    public UserGrpcService(UserService userService, Validator validator) {
+        this.userService = userService;
+        this.validator = validator;
+    }
+
+    @Override
+    public void createUser(CreateUserRequest request, StreamObserver<UserReply> responseObserver) {
+        try {
+            RequestDTO dto = validate(new RequestDTO(request.getName(), request.getEmail(), request.getPassword()));
+            reply(responseObserver, toReply(userService.toSaveUser(dto)));
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e).asRuntimeException());
+        }
+    }
+
+    @Override
+    public void updateUser(UpdateUserRequest request, StreamObserver<UserReply> responseObserver) {
+        try {
+            validateEmail(request.getEmail());
+            // Same rules as PUT /users/update: the replacement values are validated as a whole
+            RequestDTO dto = validate(new RequestDTO(request.getName(), request.getNewEmail(), request.getPassword()));
+            reply(responseObserver, toReply(userService.toUpdateUser(request.getEmail(), dto)));
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e).asRuntimeException());
+        }
+    }
+
+    @Override
+    public void deleteUser(UserEmailRequest request, StreamObserver<Empty> responseObserver) {
+        try {
+            validateEmail(request.getEmail());
+            userService.toDeleteUser(request.getEmail());
+            reply(responseObserver, Empty.getDefaultInstance());
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e).asRuntimeException());
+        }
+    }
+
+    @Override
+    public void getUser(UserEmailRequest request, StreamObserver<UserReply> responseObserver) {
+        try {
+            validateEmail(request.getEmail());
+            reply(responseObserver, toReply(userService.toPreviewUser(request.getEmail())));
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e).asRuntimeException());
+        }
+    }
+
+    @Override
+    public void listUsers(Empty request, StreamObserver<UserReply> responseObserver) {
+        ServerCallStreamObserver<UserReply> serverObserver = (ServerCallStreamObserver<UserReply>) responseObserver;
+        Iterator<ResponseDTO> remaining;
+        try {
+            remaining = userService.toPreviewAllUsers().iterator();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e).asRuntimeException());
+            return;
+        }
+        // Only send while the transport can take more, so a slow client does not make the server
+        // buffer the whole list; gRPC runs the handler again once the client has caught up
+        Runnable drain = new Runnable() {
+            private boolean completed;
+
+            @Override
+            public void run() {
+                while (!completed && serverObserver.isReady() && !serverObserver.isCancelled()) {
+                    if (!remaining.hasNext()) {
+                        completed = true;
+                        serverObserver.onCompleted();
+                        return;
+                    }
+                    serverObserver.onNext(toReply(remaining.next()));
+                }
+            }
+        };
+        serverObserver.setOnReadyHandler(drain);
+        // Handlers and this method run on the call's serializing executor, so this cannot race them
+        drain.run();
+    }
+
+    static Status toStatus(RuntimeException e) {
+        if (e instanceof UserNotFoundException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage());
+        }
+        if (e instanceof DuplicateUserException) {
+            return Status.ALREADY_EXISTS.withDescription(e.getMessage());
+        }
+        if (e instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+        }
+        return Status.INTERNAL.withDescription("An unexpected error occurred").withCause(e);
+    }
+
+    private RequestDTO validate(RequestDTO dto) {
+        Set<ConstraintViolation<RequestDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return dto;
+    }
+
+    // Same checks as the REST endpoints, with the controller's precompiled pattern
+    private void validateEmail(String email) {
+        if (email.isBlank()) {
+            throw new IllegalArgumentException("Email parameter is required and cannot be empty");
+        }
+        if (!UserController.isValidEmailFormat(email)) {
+            throw new IllegalArgumentException("Invalid email format");
+        }
+    }
+
+    private static <T> void reply(StreamObserver<T> responseObserver, T reply) {
+        responseObserver.onNext(reply);
+        responseObserver.onCompleted();
+    }
+
+    private static UserReply toReply(User user) {
+        return toReply(user.getId(), user.getName(), user.getEmail());
+    }
+
+    private static UserReply toReply(ResponseDTO user) {
+        return toReply(user.id(), user.name(), user.email());
+    }
+
+    private static UserReply toReply(UUID id, String name, String email) {
+        UserReply.Builder builder = UserReply.newBuilder()
+                .setName(name)
+                .setEmail(email);
+        if (id != null) {
+            builder.setId(ByteString.copyFrom(ByteBuffer.allocate(16)
+                    .putLong(id.getMostSignificantBits())
+                    .putLong(id.getLeastSignificantBits())
+                    .array()));
+        }
+        return builder.build();
+    }
+}
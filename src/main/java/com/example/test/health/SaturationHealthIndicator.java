@@ -0,0 +1,146 @@
+package com.example.test.health;
+
+import com.example.test.config.PasswordEncryptor;
+import com.example.test.services.UserCacheWarmer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Readiness contributor that takes the instance out of the load balancer while it is saturated.
+ * It watches the JDBC pool ({@code (active + pending) / max}), the number of password hashes in
+ * flight, the recent p99 of the {@code /users} endpoints, the Tomcat worker pool and whether the
+ * cache warm-up has finished.
+ * <p>
+ * The indicator reports {@code OUT_OF_SERVICE} as soon as any signal reaches its limit, and only
+ * reports {@code UP} again once every signal has dropped to {@code users.saturation.recovery-ratio}
+ * of its limit and {@code users.saturation.min-out-of-service} has passed, so an instance near its
+ * limits does not flap in and out of rotation. The state moves when the probe is evaluated.
+ */
+@Component("saturation")
+public class SaturationHealthIndicator implements HealthIndicator {
+    // The change feed holds its request open for minutes; its latency says nothing about load
+    private static final String CHANGE_FEED_URI = "/users/changes";
+
+    private final MeterRegistry meterRegistry;
+    private final UserCacheWarmer warmer;
+    private final double poolHigh;
+    private final int hashingHigh;
+    private final Duration p99High;
+    private final double tomcatHigh;
+    private final double recoveryRatio;
+    private final long minOutOfServiceNanos;
+
+    private boolean saturated;
+    private long saturatedSince;
+
+    public SaturationHealthIndicator(MeterRegistry meterRegistry,
+                                     UserCacheWarmer warmer,
+                                     @Value("${users.saturation.pool-high:1.0}") double poolHigh,
+                                     @Value("${users.saturation.hashing-high:0}") int hashingHigh,
+                                     @Value("${users.saturation.p99-high:PT0.5S}") Duration p99High,
+                                     @Value("${users.saturation.tomcat-high:0.9}") double tomcatHigh,
+                                     @Value("${users.saturation.recovery-ratio:0.7}") double recoveryRatio,
+                                     @Value("${users.saturation.min-out-of-service:PT10S}") Duration minOutOfService) {
+        if (poolHigh <= 0 || hashingHigh < 0 || p99High.isNegative() || p99High.isZero() || tomcatHigh <= 0) {
+            throw new IllegalArgumentException("Saturation limits must be positive");
+        }
+        if (recoveryRatio <= 0 || recoveryRatio > 1) {
+            throw new IllegalArgumentException("Saturation recovery ratio must be in (0, 1]");
+        }
+        this.meterRegistry = meterRegistry;
+        this.warmer = warmer;
+        this.poolHigh = poolHigh;
+        // BCrypt is CPU bound: more than two hashes per core waiting means requests queue behind it
+        this.hashingHigh = hashingHigh > 0 ? hashingHigh : 2 * Runtime.getRuntime().availableProcessors();
+        this.p99High = p99High;
+        this.tomcatHigh = tomcatHigh;
+        this.recoveryRatio = recoveryRatio;
+        this.minOutOfServiceNanos = minOutOfService.toNanos();
+    }
+
+    @Override
+    public Health health() {
+        return evaluate(sample(), System.nanoTime());
+    }
+
+    Signals sample() {
+        return new Signals(
+                ratio(gauge("hikaricp.connections.active") + gauge("hikaricp.connections.pending"),
+                        gauge("hikaricp.connections.max")),
+                PasswordEncryptor.inFlight(),
+                recentP99(),
+                ratio(gauge("tomcat.threads.busy"), gauge("tomcat.threads.config.max")),
+                warmer.isFinished());
+    }
+
+    synchronized Health evaluate(Signals signals, long nowNanos) {
+        double load = Math.max(Math.max(signals.poolSaturation() / poolHigh, (double) signals.hashing() / hashingHigh),
+                Math.max((double) signals.p99().toNanos() / p99High.toNanos(), signals.tomcatBusy() / tomcatHigh));
+        if (load >= 1.0) {
+            if (!saturated) {
+                saturated = true;
+                saturatedSince = nowNanos;
+            }
+        } else if (saturated && load <= recoveryRatio && nowNanos - saturatedSince >= minOutOfServiceNanos) {
+            saturated = false;
+        }
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("pool", detail(signals.poolSaturation(), poolHigh));
+        details.put("hashing", detail(signals.hashing(), hashingHigh));
+        details.put("p99", detail(signals.p99(), p99High));
+        details.put("tomcat", detail(signals.tomcatBusy(), tomcatHigh));
+        details.put("warmedUp", signals.warmedUp());
+        Health.Builder health = saturated || !signals.warmedUp() ? Health.outOfService() : Health.up();
+        return health.withDetails(details).build();
+    }
+
+    private static Map<String, Object> detail(Object value, Object limit) {
+        return Map.of("value", value, "limit", limit);
+    }
+
+    private double gauge(String name) {
+        double total = 0;
+        for (Gauge gauge : meterRegistry.find(name).gauges()) {
+            double value = gauge.value();
+            if (!Double.isNaN(value)) {
+                total += value;
+            }
+        }
+        return total;
+    }
+
+    private static double ratio(double used, double max) {
+        return max > 0 ? used / max : 0;
+    }
+
+    private Duration recentP99() {
+        double worst = 0;
+        for (Timer timer : meterRegistry.find("http.server.requests").timers()) {
+            String uri = timer.getId().getTag("uri");
+            if (uri == null || !uri.startsWith("/users") || uri.startsWith(CHANGE_FEED_URI)) {
+                continue;
+            }
+            for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                if (percentile.percentile() == 0.99) {
+                    worst = Math.max(worst, percentile.value(TimeUnit.NANOSECONDS));
+                }
+            }
+        }
+        return Duration.ofNanos((long) worst);
+    }
+
+    record Signals(double poolSaturation, int hashing, Duration p99, double tomcatBusy, boolean warmedUp) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.test.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One BCrypt hash or verify call. The event duration is the hashing time.
+ */
+@Name("com.example.test.PasswordHash")
+@Label("Password Hash")
+@Description("BCrypt hash or verify call")
+@Category({"Users", "Security"})
+@Enabled(false)
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Cost")
+    @Description("BCrypt log2 rounds, read from the hash")
+    int cost;
+
+    /**
+     * Ends the event and commits it if the recording wants it. The cost is only parsed then.
+     */
+    public void finish(String operation, String hash) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.cost = costOf(hash);
+            commit();
+        }
+    }
+
+    // BCrypt hashes look like $2a$10$..., where 10 is the cost
+    static int costOf(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') {
+            return -1;
+        }
+        char tens = hash.charAt(4);
+        char ones = hash.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(ones)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.test.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * One repository method call, from the caller's side: it includes flushes and entity loading
+ * triggered by the query, not only the time spent in the database.
+ */
+@Name("com.example.test.RepositoryQuery")
+@Label("Repository Query")
+@Description("Spring Data repository method call")
+@Category({"Users", "Database"})
+@Enabled(false)
+@StackTrace(false)
+public class RepositoryQueryEvent extends Event {
+
+    @Label("Query")
+    String query;
+
+    @Label("Rows")
+    @Description("Rows returned; 1 for a single entity or scalar, 0 for an empty result or void")
+    long rows;
+
+    public void finish(String query, Object result) {
+        end();
+        if (shouldCommit()) {
+            this.query = query;
+            this.rows = rowsOf(result);
+            commit();
+        }
+    }
+
+    static long rowsOf(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.test.jfr;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits a {@link RepositoryQueryEvent} per {@code UserRepository} call. When the event is not
+ * enabled in the running recording, the advice is a single check.
+ */
+@Aspect
+@Component
+public class RepositoryQueryEventAspect {
+
+    // this() matches the repository proxy, so inherited JpaRepository methods are included
+    @Around("this(com.example.test.repository.UserRepository)")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Object result = joinPoint.proceed();
+        event.finish("UserRepository." + joinPoint.getSignature().getName(), result);
+        return result;
+    }
+}
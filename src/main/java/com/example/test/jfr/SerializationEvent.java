@@ -0,0 +1,48 @@
+package com.example.test.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One response body written by a message converter, or one record serialized ahead of time by a
+ * cache. For HTTP writes the duration includes writing to the socket buffer.
+ */
+@Name("com.example.test.Serialization")
+@Label("Serialization")
+@Description("Response or cache record serialization")
+@Category({"Users", "Serialization"})
+@Enabled(false)
+@StackTrace(false)
+public class SerializationEvent extends Event {
+
+    @Label("Source")
+    @Description("http, offheap or list-cache")
+    String source;
+
+    @Label("Type")
+    String type;
+
+    @Label("Format")
+    String format;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    public void finish(String source, Class<?> type, String format, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.source = source;
+            this.type = type != null ? type.getSimpleName() : null;
+            this.format = format;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.test.jfr;
+
+import com.example.test.slowlog.RequestProfile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Wraps a Jackson converter to emit a {@link SerializationEvent} per response body and to add the
+ * write to the slow-request profile. Reads and writes are delegated untouched; the body stream is
+ * only wrapped to count bytes while the event is enabled.
+ */
+public class SerializationEventConverter implements GenericHttpMessageConverter<Object> {
+    private final GenericHttpMessageConverter<Object> delegate;
+
+    public SerializationEventConverter(GenericHttpMessageConverter<Object> delegate) {
+        this.delegate = delegate;
+    }
+
+    public GenericHttpMessageConverter<Object> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return delegate.canRead(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return delegate.canRead(type, contextClass, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return delegate.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return delegate.canWrite(type, clazz, mediaType);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return delegate.getSupportedMediaTypes();
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return delegate.getSupportedMediaTypes(clazz);
+    }
+
+    @Override
+    public Object read(Class<?> clazz, HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
+        return delegate.read(clazz, inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        return delegate.read(type, contextClass, inputMessage);
+    }
+
+    @Override
+    public void write(Object value, MediaType contentType, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        write(value, null, contentType, outputMessage);
+    }
+
+    @Override
+    public void write(Object value, Type type, MediaType contentType, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        SerializationEvent event = new SerializationEvent();
+        if (!event.isEnabled()) {
+            delegate.write(value, type, contentType, outputMessage);
+            RequestProfile.record("serialization", value.getClass().getSimpleName(), System.nanoTime() - start);
+            return;
+        }
+        CountingOutputMessage counting = new CountingOutputMessage(outputMessage);
+        event.begin();
+        delegate.write(value, type, contentType, counting);
+        MediaType written = counting.getHeaders().getContentType();
+        event.finish("http", value.getClass(), written != null ? written.toString() : null, counting.bytes);
+        RequestProfile.record("serialization", value.getClass().getSimpleName(), System.nanoTime() - start);
+    }
+
+    private static final class CountingOutputMessage implements HttpOutputMessage {
+        private final HttpOutputMessage target;
+        private OutputStream body;
+        private long bytes;
+
+        private CountingOutputMessage(HttpOutputMessage target) {
+            this.target = target;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return target.getHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterOutputStream(target.getBody()) {
+                    @Override
+                    public void write(int b) throws IOException {
+                        out.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                        bytes += len;
+                    }
+                };
+            }
+            return body;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.test.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+/**
+ * Latency of one endpoint in microseconds. Request threads record into a wait-free
+ * {@link Recorder}; every interval the recorder is swapped and the finished interval is kept as a
+ * compressed histogram in a ring, so a five minute window costs a few hundred bytes per interval
+ * instead of a full histogram.
+ */
+class EndpointLatency {
+    // 60 s at two significant digits keeps each live histogram around 20 KB
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+    static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final byte[][] intervals;
+    private Histogram spare;
+    private ByteBuffer buffer;
+    private int next;
+
+    EndpointLatency(int retainedIntervals) {
+        this.intervals = new byte[retainedIntervals][];
+    }
+
+    void record(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        recorder.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    /**
+     * Closes the current interval. Only called from the rotation thread.
+     */
+    void rotate() {
+        spare = recorder.getIntervalHistogram(spare);
+        byte[] compressed = null;
+        if (spare.getTotalCount() > 0) {
+            int capacity = spare.getNeededByteBufferCapacity();
+            if (buffer == null || buffer.capacity() < capacity) {
+                buffer = ByteBuffer.allocate(capacity);
+            }
+            buffer.clear();
+            int length = spare.encodeIntoCompressedByteBuffer(buffer);
+            compressed = Arrays.copyOf(buffer.array(), length);
+        }
+        synchronized (intervals) {
+            intervals[next] = compressed;
+            next = (next + 1) % intervals.length;
+        }
+    }
+
+    /**
+     * Merges the last {@code count} finished intervals.
+     */
+    Histogram window(int count) {
+        byte[][] recent = new byte[Math.min(count, intervals.length)][];
+        synchronized (intervals) {
+            for (int i = 0; i < recent.length; i++) {
+                recent[i] = intervals[Math.floorMod(next - 1 - i, intervals.length)];
+            }
+        }
+        Histogram window = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        for (byte[] compressed : recent) {
+            if (compressed != null) {
+                try {
+                    window.add(Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(compressed),
+                            HIGHEST_TRACKABLE_MICROS));
+                } catch (DataFormatException e) {
+                    throw new IllegalStateException("Corrupt latency interval", e);
+                }
+            }
+        }
+        return window;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.test.latency;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/latency} returns p50/p90/p99/p99.9/max per {@code UserController} endpoint
+ * and window. During a load test, pass the generator's intended interval between requests as
+ * {@code ?expectedIntervalMicros=} to correct for coordinated omission.
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+    private final LatencyRecorders latencyRecorders;
+
+    public LatencyEndpoint(LatencyRecorders latencyRecorders) {
+        this.latencyRecorders = latencyRecorders;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, LatencyRecorders.Percentiles>> latency(@Nullable Long expectedIntervalMicros) {
+        return latencyRecorders.snapshot(expectedIntervalMicros != null ? expectedIntervalMicros : 0);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.test.latency;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint HdrHistogram recorders with sliding windows. Every {@code users.latency.interval}
+ * the recorders are swapped; each window in {@code users.latency.windows} is the sum of the most
+ * recent finished intervals it spans, so a window lags real time by at most one interval.
+ */
+@Component
+public class LatencyRecorders implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(LatencyRecorders.class);
+
+    private final long intervalMillis;
+    private final Map<String, Integer> windows = new LinkedHashMap<>();
+    private final int retainedIntervals;
+    private final ConcurrentMap<String, EndpointLatency> endpoints = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService rotator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "latency-rotate");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running;
+
+    public LatencyRecorders(@Value("${users.latency.interval:PT5S}") Duration interval,
+                            @Value("${users.latency.windows:PT10S,PT1M,PT5M}") List<Duration> windows) {
+        if (interval.toMillis() <= 0 || windows.isEmpty()) {
+            throw new IllegalArgumentException("Latency interval and windows must be positive");
+        }
+        this.intervalMillis = interval.toMillis();
+        int longest = 0;
+        for (Duration window : windows) {
+            int count = (int) Math.max(1, (window.toMillis() + intervalMillis - 1) / intervalMillis);
+            this.windows.put(window.toString(), count);
+            longest = Math.max(longest, count);
+        }
+        this.retainedIntervals = longest;
+    }
+
+    public void record(String endpoint, long nanos) {
+        endpoints.computeIfAbsent(endpoint, key -> new EndpointLatency(retainedIntervals)).record(nanos);
+    }
+
+    void rotate() {
+        for (EndpointLatency endpoint : endpoints.values()) {
+            endpoint.rotate();
+        }
+    }
+
+    private void rotateQuietly() {
+        try {
+            rotate();
+        } catch (RuntimeException e) {
+            log.warn("Latency interval rotation failed", e);
+        }
+    }
+
+    /**
+     * Returns the percentiles of every endpoint over every window. With a positive
+     * {@code expectedIntervalMicros}, the interval between requests a load generator intended,
+     * the histograms are corrected for coordinated omission first: each stalled request also
+     * accounts for the requests the generator held back while waiting for it.
+     */
+    public Map<String, Map<String, Percentiles>> snapshot(long expectedIntervalMicros) {
+        Map<String, Map<String, Percentiles>> snapshot = new TreeMap<>();
+        endpoints.forEach((endpoint, latency) -> {
+            Map<String, Percentiles> byWindow = new LinkedHashMap<>();
+            windows.forEach((window, count) -> {
+                Histogram histogram = latency.window(count);
+                if (expectedIntervalMicros > 0) {
+                    histogram = histogram.copyCorrectedForCoordinatedOmission(expectedIntervalMicros);
+                }
+                byWindow.put(window, Percentiles.of(histogram));
+            });
+            snapshot.put(endpoint, byWindow);
+        });
+        return snapshot;
+    }
+
+    @Override
+    public void start() {
+        rotator.scheduleAtFixedRate(this::rotateQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        rotator.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Latency percentiles in milliseconds.
+     */
+    public record Percentiles(long count, double p50, double p90, double p99, double p999, double max) {
+        static Percentiles of(Histogram histogram) {
+            return new Percentiles(histogram.getTotalCount(),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.test.latency;
+
+import com.example.test.controller.UserController;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the latency of every {@link UserController} request into {@link LatencyRecorders},
+ * keyed by HTTP method and matched URI pattern. Requests that go async (the change feed) are not
+ * recorded.
+ */
+@Component
+public class LatencyRecordingFilter extends OncePerRequestFilter {
+    private final LatencyRecorders latencyRecorders;
+
+    public LatencyRecordingFilter(LatencyRecorders latencyRecorders) {
+        this.latencyRecorders = latencyRecorders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (!request.isAsyncStarted()
+                    && request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler
+                    && handler.getBeanType() == UserController.class) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                latencyRecorders.record(request.getMethod() + " " + pattern, elapsed);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.test.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the log events the pipeline threw away as {@code users.logging.dropped}, by reason.
+ * Logback builds its appenders and filters before Spring starts, so the counts are static.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("users.logging.dropped", RingBufferAppender.class, type -> RingBufferAppender.dropped())
+                .description("Log events dropped before reaching the log file")
+                .tag("reason", "buffer-full")
+                .register(registry);
+        FunctionCounter.builder("users.logging.dropped", SamplingTurboFilter.class, type -> SamplingTurboFilter.sampledOut())
+                .description("Log events dropped before reaching the log file")
+                .tag("reason", "sampled")
+                .register(registry);
+        FunctionCounter.builder("users.logging.dropped", SamplingTurboFilter.class, type -> SamplingTurboFilter.rateCapped())
+                .description("Log events dropped before reaching the log file")
+                .tag("reason", "rate-capped")
+                .register(registry);
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.test.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands log events to a single writer thread through a bounded lock-free ring buffer. Logging
+ * threads claim a slot with one CAS and never wait: when the buffer is full the event is dropped
+ * and counted in {@link #dropped()}, as is an event that cannot be prepared for the writer. The writer feeds the attached appenders, so the file
+ * appender behind it is only ever touched by one thread.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private int bufferSize = 8192;
+    private int maxFlushTime = 1000;
+
+    private AtomicReferenceArray<ILoggingEvent> slots;
+    private int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private volatile boolean sleeping;
+    private volatile boolean running;
+    private Thread writer;
+
+    public static long dropped() {
+        return DROPPED.sum();
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (bufferSize < 2) {
+            addError("bufferSize must be at least 2");
+            return;
+        }
+        int capacity = Integer.highestOneBit(bufferSize - 1) << 1;
+        slots = new AtomicReferenceArray<>(capacity);
+        mask = capacity - 1;
+        running = true;
+        writer = new Thread(this::drain, "log-writer-" + getName());
+        writer.setDaemon(true);
+        super.start();
+        writer.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Thread name, MDC and the formatted message must be captured on the logging thread.
+        // Done before claiming a slot: a claimed slot has to be published or the writer stalls.
+        try {
+            event.prepareForDeferredProcessing();
+        } catch (RuntimeException e) {
+            // The event never reaches the buffer; doAppend reports the exception (rate limited)
+            DROPPED.increment();
+            throw e;
+        }
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head > mask) {
+                DROPPED.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.set((int) sequence & mask, event);
+        if (sleeping) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            ILoggingEvent event = poll();
+            if (event != null) {
+                appenders.appendLoopOnAppenders(event);
+                continue;
+            }
+            if (!running && tail.get() == head) {
+                return;
+            }
+            sleeping = true;
+            if (tail.get() == head) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+            sleeping = false;
+        }
+    }
+
+    // Only called by the writer thread. A claimed slot may not be published yet; it is retried.
+    private ILoggingEvent poll() {
+        long current = head;
+        int index = (int) current & mask;
+        ILoggingEvent event = slots.get(index);
+        if (event == null) {
+            return null;
+        }
+        slots.set(index, null);
+        head = current + 1;
+        return event;
+    }
+
+    int depth() {
+        return (int) (tail.get() - head);
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(maxFlushTime);
+            if (writer.isAlive()) {
+                addWarn("Writer did not drain " + depth() + " queued events within " + maxFlushTime + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
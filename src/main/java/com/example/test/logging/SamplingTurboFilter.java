@@ -0,0 +1,133 @@
+package com.example.test.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Thins out log events before they are formatted.
+ * <ul>
+ * <li>{@code sampling} keeps a fraction of the events below WARN per logger prefix, e.g.
+ * {@code com.example.test.services=0.1,com.example.test.cluster=0.5}; the longest matching prefix
+ * wins and unmatched loggers keep everything.</li>
+ * <li>{@code maxPerSecond} caps how often one log statement (one format string) may fire per
+ * second, at any level, so a flood of identical errors costs a few lines, not thousands.</li>
+ * </ul>
+ * Events below a logger's level and plain {@code isDebugEnabled()} checks pass through untouched.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    private static final LongAdder SAMPLED_OUT = new LongAdder();
+    private static final LongAdder RATE_CAPPED = new LongAdder();
+    private static final int MAX_TRACKED_STATEMENTS = 10_000;
+
+    private volatile List<Rule> rules = List.of();
+    private final Map<String, Double> ratesByLogger = new ConcurrentHashMap<>();
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private int maxPerSecond;
+    private LongSupplier clock = System::currentTimeMillis;
+
+    public static long sampledOut() {
+        return SAMPLED_OUT.sum();
+    }
+
+    public static long rateCapped() {
+        return RATE_CAPPED.sum();
+    }
+
+    public void setSampling(String sampling) {
+        List<Rule> parsed = new ArrayList<>();
+        for (String entry : sampling.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.lastIndexOf('=');
+            if (separator <= 0) {
+                addError("Sampling entry '" + trimmed + "' is not logger=rate");
+                continue;
+            }
+            double rate = Double.parseDouble(trimmed.substring(separator + 1).trim());
+            parsed.add(new Rule(trimmed.substring(0, separator).trim(), Math.max(0, Math.min(1, rate))));
+        }
+        parsed.sort(Comparator.comparingInt((Rule rule) -> rule.prefix().length()).reversed());
+        rules = List.copyOf(parsed);
+        ratesByLogger.clear();
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || !isStarted() || level.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        if (level.levelInt < Level.WARN_INT && !rules.isEmpty()) {
+            double rate = ratesByLogger.computeIfAbsent(logger.getName(), this::rateFor);
+            if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+                SAMPLED_OUT.increment();
+                return FilterReply.DENY;
+            }
+        }
+        if (maxPerSecond > 0 && !admit(format)) {
+            RATE_CAPPED.increment();
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private double rateFor(String loggerName) {
+        for (Rule rule : rules) {
+            if (loggerName.startsWith(rule.prefix())) {
+                return rule.rate();
+            }
+        }
+        return 1.0;
+    }
+
+    private boolean admit(String format) {
+        if (windows.size() > MAX_TRACKED_STATEMENTS) {
+            // Formats built by concatenation never repeat; forget them rather than grow forever
+            windows.clear();
+        }
+        long second = clock.getAsLong() / 1000;
+        return windows.computeIfAbsent(format, key -> new Window()).admit(second, maxPerSecond);
+    }
+
+    private record Rule(String prefix, double rate) {
+    }
+
+    private static final class Window {
+        private volatile long second = Long.MIN_VALUE;
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean admit(long now, int max) {
+            if (second != now) {
+                synchronized (this) {
+                    if (second != now) {
+                        count.set(0);
+                        second = now;
+                    }
+                }
+            }
+            return count.incrementAndGet() <= max;
+        }
+    }
+}
@@ -12,6 +12,7 @@ public class User {
     @Column(name = "usr_id")
     private UUID id;
     private String name;
+    @Column(unique = true)
     private String email;
     private String password;
 
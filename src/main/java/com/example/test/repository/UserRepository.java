@@ -1,6 +1,7 @@
 package com.example.test.repository;
 
 import com.example.test.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +9,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,8 +20,35 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @Query("SELECT u From User u WHERE u.email = :email")
     Optional<User> findByEmail(@Param("email") String email);
 
+    @Query("SELECT u.email FROM User u")
+    List<String> findAllEmails();
+
+    @Query("SELECT u.id AS id, u.email AS email FROM User u")
+    List<UserKey> findAllKeys();
+
+    @Query("SELECT u FROM User u WHERE u.email IN :emails")
+    List<User> findByEmailIn(@Param("emails") Collection<String> emails);
+
+    /**
+     * The first ids in primary key order, read without loading the rows or counting the table.
+     */
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<UUID> findIdsOrderById(Limit limit);
+
+    @Query("SELECT u FROM User u WHERE u.id BETWEEN :first AND :last")
+    List<User> findByIdBetween(@Param("first") UUID first, @Param("last") UUID last);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM User u WHERE u.email = :email")
     void deleteByEmail(@Param("email") String email);
+
+    /**
+     * Id and email of a user, without loading the entity.
+     */
+    interface UserKey {
+        UUID getId();
+
+        String getEmail();
+    }
 }
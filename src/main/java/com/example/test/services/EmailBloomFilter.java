@@ -0,0 +1,229 @@
+package com.example.test.services;
+
+import com.example.test.events.UserChangedEvent;
+import com.example.test.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of registered emails that lets {@link UserService#userDoesExist(String)} skip the
+ * database for emails that were never registered. Until the first background build completes
+ * every email is reported as possibly present, so callers fall back to the database. The filter
+ * only sees creates on other instances through the invalidation bus, so a miss is trusted only
+ * while the bus is active; the unique email constraint catches anything that slips past.
+ * <p>
+ * Deleted emails cannot be removed from a Bloom filter; they stay as false positives until the
+ * next periodic rebuild. Emails committed while a rebuild runs are added to both the live and the
+ * new filter, so the swap never loses them.
+ */
+@Component
+public class EmailBloomFilter {
+    private static final Logger log = LoggerFactory.getLogger(EmailBloomFilter.class);
+
+    private final UserRepository userRepository;
+    private final long expectedInsertions;
+    private final double fpp;
+    private final Duration rebuildInterval;
+    private final ScheduledExecutorService rebuilds = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-email-filter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Bits current;
+    private volatile Bits building;
+
+    private final Counter definiteMisses;
+    private final Counter possibleHits;
+    private final Timer rebuildTimer;
+
+    public EmailBloomFilter(UserRepository userRepository,
+                            @Value("${users.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${users.email-filter.fpp:0.01}") double fpp,
+                            @Value("${users.email-filter.rebuild-interval:PT6H}") Duration rebuildInterval,
+                            MeterRegistry meterRegistry) {
+        if (expectedInsertions <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("Email filter needs positive insertions and 0 < fpp < 1");
+        }
+        this.userRepository = userRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.rebuildInterval = rebuildInterval;
+        this.definiteMisses = meterRegistry.counter("users.email.filter.lookups", "result", "miss");
+        this.possibleHits = meterRegistry.counter("users.email.filter.lookups", "result", "maybe");
+        this.rebuildTimer = meterRegistry.timer("users.email.filter.rebuild");
+        Gauge.builder("users.email.filter.fpp", this, filter -> filter.expectedFpp())
+                .description("False-positive probability estimated from the fraction of set bits")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.ready", this, filter -> filter.isReady() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuilds.scheduleWithFixedDelay(this::rebuildQuietly, 0, rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns {@code false} only if the email has definitely never been registered.
+     */
+    public boolean mightContain(String email) {
+        Bits bits = current;
+        if (bits == null || email == null) {
+            return true;
+        }
+        boolean maybe = bits.mightContain(email);
+        (maybe ? possibleHits : definiteMisses).increment();
+        return maybe;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() != UserChangedEvent.Type.DELETED && event.email() != null) {
+            put(event.email());
+        }
+    }
+
+    public void put(String email) {
+        // Read building before current: rebuild publishes current before clearing building
+        Bits next = building;
+        Bits live = current;
+        if (next != null) {
+            next.add(email);
+        }
+        if (live != null) {
+            live.add(email);
+        }
+    }
+
+    /**
+     * Builds a fresh filter from the database and swaps it in. Lookups keep using the previous
+     * filter, or the database if there is none yet, until the new one is complete.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Bits next = Bits.create(Math.max(expectedInsertions, userRepository.count() * 2), fpp);
+        building = next;
+        try {
+            List<String> emails = userRepository.findAllEmails();
+            for (String email : emails) {
+                if (email != null) {
+                    next.add(email);
+                }
+            }
+            current = next;
+            log.debug("Rebuilt email filter with {} emails, {} bits, {} hashes", emails.size(), next.size, next.hashes);
+        } finally {
+            building = null;
+            rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Schedules a rebuild now instead of waiting for the next periodic run.
+     */
+    public void requestRebuild() {
+        try {
+            rebuilds.execute(this::rebuildQuietly);
+        } catch (RuntimeException e) {
+            // Executor is shutting down
+            log.debug("Email filter rebuild not scheduled", e);
+        }
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    public double expectedFpp() {
+        Bits bits = current;
+        return bits != null ? bits.expectedFpp() : 1.0;
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Keep the previous filter; the next scheduled run tries again
+            log.warn("Email filter rebuild failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilds.shutdownNow();
+    }
+
+    static final class Bits {
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+        private final AtomicLong setBits = new AtomicLong();
+
+        private Bits(long size, int hashes) {
+            this.words = new AtomicLongArray((int) ((size + 63) >>> 6));
+            this.size = size;
+            this.hashes = hashes;
+        }
+
+        static Bits create(long expectedInsertions, double fpp) {
+            long size = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+            int hashes = Math.max(1, (int) Math.round((double) size / expectedInsertions * Math.log(2)));
+            return new Bits(size, hashes);
+        }
+
+        void add(String email) {
+            long h1 = EmailHash.of(email);
+            long h2 = EmailHash.mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, size);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long old;
+                do {
+                    old = words.get(word);
+                    if ((old & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(word, old, old | mask));
+                if ((old & mask) == 0) {
+                    setBits.incrementAndGet();
+                }
+            }
+        }
+
+        boolean mightContain(String email) {
+            long h1 = EmailHash.of(email);
+            long h2 = EmailHash.mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, size);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double expectedFpp() {
+            return Math.pow((double) setBits.get() / size, hashes);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.test.services;
+
+/**
+ * 64-bit email hash shared by the in-memory email structures: FNV-1a over the UTF-16 code units,
+ * finished with the MurmurHash3 mixer. Never returns 0, so callers can use 0 as an empty marker.
+ */
+public final class EmailHash {
+
+    private EmailHash() {
+    }
+
+    public static long of(String email) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < email.length(); i++) {
+            hash ^= email.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        hash = mix(hash);
+        return hash != 0 ? hash : 1;
+    }
+
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
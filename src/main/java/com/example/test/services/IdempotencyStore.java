@@ -0,0 +1,153 @@
+package com.example.test.services;
+
+import com.example.test.exceptions.RequestInProgressException;
+import com.example.test.exceptions.UserException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Bounded, TTL-evicted record of the outcome of requests carrying an {@code Idempotency-Key}.
+ * The first request for a key runs the action; retries replay the recorded outcome and
+ * concurrent duplicates wait up to {@code users.idempotency.wait-timeout} for the first attempt
+ * instead of running it again. Entries whose attempt is still running are never evicted.
+ */
+@Component
+public class IdempotencyStore {
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long waitTimeoutNanos;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Every entry has the same TTL, so insertion order is also expiry order
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    public IdempotencyStore(@Value("${users.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${users.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${users.idempotency.wait-timeout:PT10S}") Duration waitTimeout) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Idempotency store size must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+    }
+
+    /**
+     * Runs the action once per key and fingerprint.
+     *
+     * @return {@code true} if the outcome was replayed from an earlier attempt
+     * @throws UserException the recorded failure of the original attempt
+     * @throws RequestInProgressException if the original attempt did not finish within the wait timeout
+     * @throws IllegalArgumentException if the key was already used for a different request
+     */
+    public boolean execute(String key, String fingerprint, Runnable action) {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        while (true) {
+            long now = System.nanoTime();
+            Entry fresh = new Entry(key, fingerprint, now);
+            Entry existing = entries.putIfAbsent(key, fresh);
+
+            // An attempt still running keeps its key, however old it is
+            if (existing != null && existing.outcome.isDone() && existing.isExpired(now, ttlNanos)) {
+                if (!entries.replace(key, existing, fresh)) {
+                    continue;
+                }
+                existing = null;
+            }
+
+            if (existing == null) {
+                insertionOrder.add(fresh);
+                evict(now);
+                run(fresh, action);
+                return false;
+            }
+
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IllegalArgumentException("Idempotency-Key has already been used for a different request");
+            }
+
+            UserException failure;
+            try {
+                failure = existing.outcome.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                // The first attempt failed unexpectedly and released the key; try again
+                continue;
+            } catch (TimeoutException e) {
+                throw new RequestInProgressException("A request with this Idempotency-Key is still in progress");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RequestInProgressException("A request with this Idempotency-Key is still in progress");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return true;
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void run(Entry entry, Runnable action) {
+        try {
+            action.run();
+            entry.outcome.complete(null);
+        } catch (UserException e) {
+            entry.outcome.complete(e);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            // Only business outcomes are recorded; infrastructure failures stay retryable
+            entries.remove(entry.key, entry);
+            entry.outcome.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void evict(long now) {
+        Iterator<Entry> oldestFirst = insertionOrder.iterator();
+        while (oldestFirst.hasNext()) {
+            Entry oldest = oldestFirst.next();
+            if (!oldest.isExpired(now, ttlNanos) && entries.size() <= maxEntries) {
+                return;
+            }
+            // Dropping a running attempt would let its retry run the action a second time
+            if (oldest.outcome.isDone()) {
+                oldestFirst.remove();
+                entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final String fingerprint;
+        private final long createdAt;
+        private final CompletableFuture<UserException> outcome = new CompletableFuture<>();
+
+        private Entry(String key, String fingerprint, long createdAt) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+
+        private boolean isExpired(long now, long ttlNanos) {
+            return now - createdAt >= ttlNanos;
+        }
+    }
+}
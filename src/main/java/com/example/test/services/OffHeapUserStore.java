@@ -0,0 +1,478 @@
+package com.example.test.services;
+
+import com.example.test.dto.ResponseDTO;
+import com.example.test.events.UserChangedEvent;
+import com.example.test.jfr.SerializationEvent;
+import com.example.test.slowlog.RequestProfile;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Keeps the serialized {@code /users/preview} JSON of each user outside the Java heap. Records live
+ * in fixed-size slots carved from direct {@link ByteBuffer} segments of
+ * {@code users.offheap.segment-size}, up to {@code users.offheap.max-bytes} in total. The email
+ * index is a primitive {@link LongLongMap}, so the heap footprint stays a handful of arrays
+ * regardless of how many users are stored.
+ * <p>
+ * Slots are grouped in power-of-two size classes. Freed slots are reused by the next record of the
+ * same class; once the memory budget is spent, a class evicts its oldest slot in ring order.
+ * Records larger than the biggest class are served but not stored.
+ * <p>
+ * Records expire {@code users.cache.hard-ttl} after they were written, the same bound
+ * {@link UserCache} puts on its entries; an expired record is treated as a miss and overwritten by
+ * the reload. The store sits in front of {@link UserCache}: misses are expected to load through it,
+ * and hits are reported to it so its eviction policy and {@link UserCache#hottest(int)} see them.
+ */
+@Component
+public class OffHeapUserStore {
+    static final int PAGE_SIZE = 64 * 1024;
+    static final int MIN_SLOT = 128;
+    static final int MAX_SLOT = 4096;
+    // Hits are copied here under the read lock instead of into a new array per request
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[MAX_SLOT]);
+
+    // Slot layout: [long hash][long written at][int record length][short email length][email UTF-8][JSON]
+    private static final int WRITTEN_AT = Long.BYTES;
+    private static final int LENGTH = WRITTEN_AT + Long.BYTES;
+    private static final int EMAIL_LENGTH = LENGTH + Integer.BYTES;
+    private static final int HEADER = EMAIL_LENGTH + Short.BYTES;
+
+    private final ObjectWriter writer;
+    private final UserCache userCache;
+    private final Ticker ticker;
+    private final long ttlNanos;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final SizeClass[] classes;
+    private final LongLongMap index = new LongLongMap(1024);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong generation = new AtomicLong();
+    private long nextPage;
+    private long usedBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter expirations;
+    private final Counter rejected;
+
+    @Autowired
+    public OffHeapUserStore(ObjectMapper objectMapper,
+                            @Value("${users.offheap.max-bytes:64MB}") DataSize maxBytes,
+                            @Value("${users.offheap.segment-size:8MB}") DataSize segmentSize,
+                            @Value("${users.cache.hard-ttl:PT10M}") Duration ttl,
+                            UserCache userCache,
+                            MeterRegistry meterRegistry) {
+        this(objectMapper, maxBytes, segmentSize, ttl, userCache, Ticker.systemTicker(), meterRegistry);
+    }
+
+    OffHeapUserStore(ObjectMapper objectMapper, DataSize maxBytes, DataSize segmentSize, Duration ttl,
+                     UserCache userCache, Ticker ticker, MeterRegistry meterRegistry) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Off-heap record TTL must be positive");
+        }
+        if (segmentSize.toBytes() < PAGE_SIZE || segmentSize.toBytes() > Integer.MAX_VALUE
+                || segmentSize.toBytes() % PAGE_SIZE != 0) {
+            throw new IllegalArgumentException("Off-heap segment size must be a multiple of " + PAGE_SIZE + " bytes");
+        }
+        this.writer = objectMapper.writerFor(ResponseDTO.class);
+        this.userCache = userCache;
+        this.ticker = ticker;
+        this.ttlNanos = ttl.toNanos();
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.maxSegments = (int) Math.max(1, maxBytes.toBytes() / this.segmentSize);
+        List<SizeClass> sizeClasses = new ArrayList<>();
+        for (int slotSize = MIN_SLOT; slotSize <= MAX_SLOT; slotSize <<= 1) {
+            sizeClasses.add(new SizeClass(slotSize));
+        }
+        this.classes = sizeClasses.toArray(new SizeClass[0]);
+
+        this.hits = meterRegistry.counter("users.offheap.requests", "result", "hit");
+        this.misses = meterRegistry.counter("users.offheap.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("users.offheap.evictions");
+        this.expirations = meterRegistry.counter("users.offheap.expirations");
+        this.rejected = meterRegistry.counter("users.offheap.rejected");
+        Gauge.builder("users.offheap.entries", this, OffHeapUserStore::size)
+                .register(meterRegistry);
+        Gauge.builder("users.offheap.bytes.allocated", this, OffHeapUserStore::allocatedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("users.offheap.bytes.used", this, OffHeapUserStore::usedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the JSON for the user, loading and storing it on a miss. The returned array is a
+     * private copy; the slot may be reused as soon as the read lock is released.
+     */
+    public byte[] get(String email, Function<String, ResponseDTO> loader) {
+        long hash = EmailHash.of(email);
+        byte[] buffer = SCRATCH.get();
+        int length = read(hash, email, buffer);
+        if (length >= 0) {
+            hit(email);
+            return Arrays.copyOf(buffer, length);
+        }
+        misses.increment();
+        return load(hash, email, loader);
+    }
+
+    /**
+     * Like {@link #get(String, Function)}, but a hit is served from a per-thread buffer without
+     * allocating a copy. The stream must be consumed before the calling thread uses the store again.
+     */
+    public ByteArrayInputStream open(String email, Function<String, ResponseDTO> loader) {
+        long hash = EmailHash.of(email);
+        byte[] buffer = SCRATCH.get();
+        int length = read(hash, email, buffer);
+        if (length >= 0) {
+            hit(email);
+            return new ByteArrayInputStream(buffer, 0, length);
+        }
+        misses.increment();
+        return new ByteArrayInputStream(load(hash, email, loader));
+    }
+
+    public boolean contains(String email) {
+        return email != null && read(EmailHash.of(email), email, null) >= 0;
+    }
+
+    private void hit(String email) {
+        hits.increment();
+        userCache.recordAccess(email);
+    }
+
+    private byte[] load(long hash, String email, Function<String, ResponseDTO> loader) {
+        // A write committed while loading must not be overwritten by the stale record
+        long loadedAt = generation.get();
+        ResponseDTO user = loader.apply(email);
+        long start = System.nanoTime();
+        SerializationEvent event = new SerializationEvent();
+        event.begin();
+        byte[] json;
+        try {
+            json = writer.writeValueAsBytes(user);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        event.finish("offheap", ResponseDTO.class, "application/json", json.length);
+        RequestProfile.record("serialization", "offheap", System.nanoTime() - start);
+        write(hash, email, json, loadedAt);
+        return json;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        List<String> emails = new ArrayList<>(2);
+        if (event.email() != null) {
+            emails.add(event.email());
+        }
+        if (event.previousEmail() != null) {
+            emails.add(event.previousEmail());
+        }
+        invalidate(emails);
+    }
+
+    public void invalidate(Collection<String> emails) {
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            generation.incrementAndGet();
+            for (String email : emails) {
+                long address = index.remove(EmailHash.of(email));
+                if (address != LongLongMap.MISSING) {
+                    free(address);
+                }
+            }
+        } finally {
+            write.unlock();
+        }
+    }
+
+    /**
+     * Drops every record. Segments stay allocated and are reused.
+     */
+    public void invalidateAll() {
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            generation.incrementAndGet();
+            index.clear();
+            for (SizeClass sizeClass : classes) {
+                sizeClass.reset();
+            }
+            nextPage = 0;
+            usedBytes = 0;
+        } finally {
+            write.unlock();
+        }
+    }
+
+    public int size() {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            return index.size();
+        } finally {
+            read.unlock();
+        }
+    }
+
+    long allocatedBytes() {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            return (long) segments.size() * segmentSize;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    long usedBytes() {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            return usedBytes;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * Copies the stored JSON into the buffer, if one is given, and returns its length, or -1 if the
+     * email has no live record.
+     */
+    private int read(long hash, String email, byte[] buffer) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            long address = index.get(hash);
+            if (address == LongLongMap.MISSING) {
+                return -1;
+            }
+            ByteBuffer segment = segment(address);
+            int offset = offset(address);
+            int length = segment.getInt(offset + LENGTH);
+            int emailLength = segment.getShort(offset + EMAIL_LENGTH);
+            // Two emails with the same 64-bit hash: only one of them can be stored
+            if (!storedEmailEquals(segment, offset + HEADER, emailLength, email)) {
+                return -1;
+            }
+            // Left in place: the reload that follows the miss overwrites it
+            if (ticker.read() - segment.getLong(offset + WRITTEN_AT) >= ttlNanos) {
+                expirations.increment();
+                return -1;
+            }
+            int jsonLength = length - emailLength;
+            if (buffer != null) {
+                segment.get(offset + HEADER + emailLength, buffer, 0, jsonLength);
+            }
+            return jsonLength;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    // Compares in place; emails are almost always ASCII, anything else is encoded first
+    private static boolean storedEmailEquals(ByteBuffer segment, int at, int storedLength, String email) {
+        int length = email.length();
+        for (int i = 0; i < length; i++) {
+            if (email.charAt(i) >= 0x80) {
+                return segment.slice(at, storedLength).equals(ByteBuffer.wrap(email.getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        if (length != storedLength) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (segment.get(at + i) != (byte) email.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void write(long hash, String email, byte[] json, long loadedAt) {
+        byte[] emailBytes = email.getBytes(StandardCharsets.UTF_8);
+        int length = emailBytes.length + json.length;
+        SizeClass sizeClass = classFor(HEADER + length);
+        if (sizeClass == null || emailBytes.length > Short.MAX_VALUE) {
+            rejected.increment();
+            return;
+        }
+
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            if (generation.get() != loadedAt) {
+                return;
+            }
+            long previous = index.remove(hash);
+            if (previous != LongLongMap.MISSING) {
+                free(previous);
+            }
+            long address = allocate(sizeClass);
+            if (address == LongLongMap.MISSING) {
+                rejected.increment();
+                return;
+            }
+            ByteBuffer segment = segment(address);
+            int offset = offset(address);
+            segment.putLong(offset, hash);
+            segment.putLong(offset + WRITTEN_AT, ticker.read());
+            segment.putInt(offset + LENGTH, length);
+            segment.putShort(offset + EMAIL_LENGTH, (short) emailBytes.length);
+            segment.put(offset + HEADER, emailBytes);
+            segment.put(offset + HEADER + emailBytes.length, json);
+            index.put(hash, address);
+            usedBytes += sizeClass.slotSize;
+        } finally {
+            write.unlock();
+        }
+    }
+
+    // Called with the write lock held
+    private long allocate(SizeClass sizeClass) {
+        if (sizeClass.freeCount > 0) {
+            return sizeClass.free[--sizeClass.freeCount];
+        }
+        if (sizeClass.bumpLimit - sizeClass.bump >= sizeClass.slotSize) {
+            long address = sizeClass.bump;
+            sizeClass.bump += sizeClass.slotSize;
+            return address;
+        }
+        long page = newPage();
+        if (page != LongLongMap.MISSING) {
+            sizeClass.addPage(page);
+            return allocate(sizeClass);
+        }
+        return evict(sizeClass);
+    }
+
+    private long newPage() {
+        long segmentIndex = nextPage * PAGE_SIZE / segmentSize;
+        if (segmentIndex >= maxSegments) {
+            return LongLongMap.MISSING;
+        }
+        if (segmentIndex == segments.size()) {
+            segments.add(ByteBuffer.allocateDirect(segmentSize));
+        }
+        return nextPage++ * PAGE_SIZE;
+    }
+
+    // Walks the class's slots in ring order and takes the first one that holds a record
+    private long evict(SizeClass sizeClass) {
+        int slotsPerPage = PAGE_SIZE / sizeClass.slotSize;
+        int total = sizeClass.pageCount * slotsPerPage;
+        for (int step = 0; step < total; step++) {
+            int slot = sizeClass.hand;
+            sizeClass.hand = (sizeClass.hand + 1) % total;
+            long address = sizeClass.pages[slot / slotsPerPage] + (long) (slot % slotsPerPage) * sizeClass.slotSize;
+            if (address >= sizeClass.bump && address < sizeClass.bumpLimit) {
+                continue;
+            }
+            long hash = segment(address).getLong(offset(address));
+            if (hash != 0 && index.get(hash) == address) {
+                index.remove(hash);
+                usedBytes -= sizeClass.slotSize;
+                evictions.increment();
+                return address;
+            }
+        }
+        return LongLongMap.MISSING;
+    }
+
+    // Called with the write lock held
+    private void free(long address) {
+        ByteBuffer segment = segment(address);
+        int offset = offset(address);
+        int length = segment.getInt(offset + LENGTH);
+        SizeClass sizeClass = classFor(HEADER + length);
+        segment.putLong(offset, 0);
+        sizeClass.release(address);
+        usedBytes -= sizeClass.slotSize;
+    }
+
+    private SizeClass classFor(int bytes) {
+        for (SizeClass sizeClass : classes) {
+            if (bytes <= sizeClass.slotSize) {
+                return sizeClass;
+            }
+        }
+        return null;
+    }
+
+    private ByteBuffer segment(long address) {
+        return segments.get((int) (address / segmentSize));
+    }
+
+    private int offset(long address) {
+        return (int) (address % segmentSize);
+    }
+
+    private static final class SizeClass {
+        final int slotSize;
+        long[] pages = new long[4];
+        int pageCount;
+        long[] free = new long[16];
+        int freeCount;
+        long bump;
+        long bumpLimit;
+        int hand;
+
+        SizeClass(int slotSize) {
+            this.slotSize = slotSize;
+        }
+
+        void addPage(long page) {
+            if (pageCount == pages.length) {
+                pages = Arrays.copyOf(pages, pageCount << 1);
+            }
+            pages[pageCount++] = page;
+            bump = page;
+            bumpLimit = page + PAGE_SIZE;
+        }
+
+        void release(long address) {
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount << 1);
+            }
+            free[freeCount++] = address;
+        }
+
+        void reset() {
+            pageCount = 0;
+            freeCount = 0;
+            bump = 0;
+            bumpLimit = 0;
+            hand = 0;
+        }
+    }
+}
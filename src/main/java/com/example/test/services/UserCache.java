@@ -0,0 +1,251 @@
+package com.example.test.services;
+
+import com.example.test.dto.ResponseDTO;
+import com.example.test.events.UserChangedEvent;
+import com.example.test.exceptions.UserException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.Function;
+
+/**
+ * Bounded email to {@link ResponseDTO} cache used by {@link UserService}. Only immutable
+ * projections are cached, never managed entities. Entries are evicted in the committing thread
+ * once a write through {@link UserService} commits, and on other instances through
+ * {@link com.example.test.cluster.UserInvalidationBus}; writes that bypass the service must call
+ * {@link #invalidateAll()}.
+ * <p>
+ * Entries older than {@code users.cache.soft-ttl} are still served, and a reload is queued on a
+ * small bounded pool so hot emails never expire under load. If the reload fails for any reason
+ * other than the user being gone, the old entry keeps being served until
+ * {@code users.cache.hard-ttl}, which is when Caffeine drops it.
+ */
+@Component
+public class UserCache {
+    private static final Logger log = LoggerFactory.getLogger(UserCache.class);
+    static final String CACHE_NAME = "users";
+
+    private final Cache<String, Entry> cache;
+    private final Ticker ticker;
+    private final long softTtlNanos;
+    private final Executor refresher;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    // Bumped by every invalidation so bulk loads can tell whether they raced a write
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter refreshed;
+    private final Counter refreshFailed;
+    private final Counter refreshRemoved;
+    private final Counter refreshRejected;
+    private final Timer staleness;
+
+    @Autowired
+    public UserCache(@Value("${users.cache.max-size:10000}") long maxSize,
+                     @Value("${users.cache.soft-ttl:PT1M}") Duration softTtl,
+                     @Value("${users.cache.hard-ttl:PT10M}") Duration hardTtl,
+                     @Value("${users.cache.refresh.threads:2}") int refreshThreads,
+                     @Value("${users.cache.refresh.queue-size:1000}") int refreshQueueSize,
+                     MeterRegistry meterRegistry) {
+        this(maxSize, softTtl, hardTtl, newRefreshPool(refreshThreads, refreshQueueSize), Ticker.systemTicker(),
+                meterRegistry);
+    }
+
+    UserCache(long maxSize, Duration softTtl, Duration hardTtl, Executor refresher, Ticker ticker,
+              MeterRegistry meterRegistry) {
+        if (softTtl.compareTo(hardTtl) > 0) {
+            throw new IllegalArgumentException("users.cache.soft-ttl must not exceed users.cache.hard-ttl");
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(hardTtl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        this.ticker = ticker;
+        this.softTtlNanos = softTtl.toNanos();
+        this.refresher = refresher;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("users.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .register(meterRegistry);
+        this.refreshed = meterRegistry.counter("users.cache.refreshes", "result", "success");
+        this.refreshFailed = meterRegistry.counter("users.cache.refreshes", "result", "failure");
+        this.refreshRemoved = meterRegistry.counter("users.cache.refreshes", "result", "removed");
+        this.refreshRejected = meterRegistry.counter("users.cache.refreshes", "result", "rejected");
+        this.staleness = Timer.builder("users.cache.staleness")
+                .description("Age of entries served after the soft TTL")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static ExecutorService newRefreshPool(int threads, int queueSize) {
+        if (threads <= 0 || queueSize <= 0) {
+            throw new IllegalArgumentException("Cache refresh threads and queue size must be positive");
+        }
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "user-cache-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Returns the cached projection or loads it. Loading is atomic per email, so an eviction
+     * issued while a load is in flight waits for it and then removes the possibly stale value.
+     * Entries past the soft TTL are returned as they are and reloaded in the background.
+     */
+    public ResponseDTO get(String email, Function<String, ResponseDTO> loader) {
+        if (email == null) {
+            // Caffeine rejects null keys; let the loader report the lookup failure as usual
+            return loader.apply(null);
+        }
+        Entry entry = cache.get(email, key -> new Entry(loader.apply(key), ticker.read()));
+        long age = ticker.read() - entry.loadedAt();
+        if (age >= softTtlNanos) {
+            staleness.record(age, TimeUnit.NANOSECONDS);
+            refresh(email, entry, loader);
+        }
+        return entry.value();
+    }
+
+    private void refresh(String email, Entry stale, Function<String, ResponseDTO> loader) {
+        if (!refreshing.add(email)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    Entry fresh = new Entry(loader.apply(email), ticker.read());
+                    // Replaces only the entry that was stale; an invalidation in the meantime wins
+                    if (cache.asMap().replace(email, stale, fresh)) {
+                        refreshed.increment();
+                    }
+                } catch (UserException e) {
+                    cache.asMap().remove(email, stale);
+                    refreshRemoved.increment();
+                } catch (RuntimeException e) {
+                    refreshFailed.increment();
+                    log.debug("Refreshing cached user {} failed; serving the stale entry", email, e);
+                } finally {
+                    refreshing.remove(email);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(email);
+            refreshRejected.increment();
+        }
+    }
+
+    /**
+     * Bulk-loads projections without overwriting existing entries. The batch is dropped if any
+     * invalidation happened while it was loading, since it may then contain stale rows.
+     *
+     * @return the number of entries added
+     */
+    public int warm(Supplier<List<ResponseDTO>> loader) {
+        long before = generation.get();
+        List<ResponseDTO> users = loader.get();
+        if (generation.get() != before) {
+            return 0;
+        }
+        List<Entry> added = new ArrayList<>(users.size());
+        long now = ticker.read();
+        for (ResponseDTO user : users) {
+            Entry entry = new Entry(user, now);
+            if (user.email() != null && cache.asMap().putIfAbsent(user.email(), entry) == null) {
+                added.add(entry);
+            }
+        }
+        // An invalidation that slipped in between the check and the puts may have missed them
+        if (generation.get() != before) {
+            added.forEach(entry -> cache.asMap().remove(entry.value().email(), entry));
+            return 0;
+        }
+        return added.size();
+    }
+
+    /**
+     * Most frequently used emails according to the eviction policy, hottest first.
+     */
+    public Set<String> hottest(int limit) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.hottest(limit).keySet())
+                .orElse(Set.of());
+    }
+
+    public boolean contains(String email) {
+        return email != null && cache.getIfPresent(email) != null;
+    }
+
+    /**
+     * Counts a read that a tier in front of this cache served, so the eviction policy and
+     * {@link #hottest(int)} see it. Hit and miss statistics are left untouched.
+     */
+    public void recordAccess(String email) {
+        if (email != null) {
+            cache.asMap().get(email);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.email() != null) {
+            cache.invalidate(event.email());
+        }
+        if (event.previousEmail() != null) {
+            cache.invalidate(event.previousEmail());
+        }
+    }
+
+    public void invalidate(Collection<String> emails) {
+        generation.incrementAndGet();
+        cache.invalidateAll(emails);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    private record Entry(ResponseDTO value, long loadedAt) {
+    }
+}
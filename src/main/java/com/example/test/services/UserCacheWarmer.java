@@ -0,0 +1,222 @@
+package com.example.test.services;
+
+import com.example.test.dto.ResponseDTO;
+import com.example.test.model.User;
+import com.example.test.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills {@link UserCache} before the instance reports ready. Spring Boot only switches readiness
+ * to {@code ACCEPTING_TRAFFIC} after all runners return, so this runner holds readiness back until
+ * the warm-up completes or {@code users.warmup.budget} runs out.
+ * <p>
+ * If {@code users.warmup.hot-keys-file} exists, the emails in it are loaded; the file is rewritten
+ * with the cache's hottest emails on shutdown. Otherwise the first {@code users.warmup.max-users}
+ * rows in id order are loaded. Either way the work is split into chunks that are read in parallel.
+ * <p>
+ * {@link OffHeapUserStore} loads its misses through {@link UserCache}, so warming the cache also
+ * spares the off-heap tier a database read for every warmed user.
+ */
+@Component
+public class UserCacheWarmer implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(UserCacheWarmer.class);
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final UserCache userCache;
+    private final boolean enabled;
+    private final Duration budget;
+    private final int parallelism;
+    private final int chunkSize;
+    private final int maxUsers;
+    private final Path hotKeysFile;
+
+    private final Timer duration;
+    private volatile Result lastResult = new Result(0, 0, Duration.ZERO, false);
+    private volatile boolean finished;
+
+    public UserCacheWarmer(UserRepository userRepository,
+                           UserMapper userMapper,
+                           UserCache userCache,
+                           @Value("${users.warmup.enabled:true}") boolean enabled,
+                           @Value("${users.warmup.budget:PT30S}") Duration budget,
+                           @Value("${users.warmup.parallelism:4}") int parallelism,
+                           @Value("${users.warmup.chunk-size:500}") int chunkSize,
+                           @Value("${users.warmup.max-users:10000}") int maxUsers,
+                           @Value("${users.warmup.hot-keys-file:}") String hotKeysFile,
+                           MeterRegistry meterRegistry) {
+        if (parallelism <= 0 || chunkSize <= 0 || maxUsers < 0) {
+            throw new IllegalArgumentException("Warm-up parallelism and chunk size must be positive");
+        }
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.userCache = userCache;
+        this.enabled = enabled;
+        this.budget = budget;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.maxUsers = maxUsers;
+        this.hotKeysFile = hotKeysFile.isBlank() ? null : Path.of(hotKeysFile);
+        this.duration = meterRegistry.timer("users.cache.warmup");
+        Gauge.builder("users.cache.warmup.coverage", this, warmer -> warmer.lastResult.coverage())
+                .description("Fraction of targeted users loaded by the last warm-up")
+                .register(meterRegistry);
+        Gauge.builder("users.cache.warmup.loaded", this, warmer -> warmer.lastResult.loaded())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    public Result warmUp() {
+        long start = System.nanoTime();
+        List<Callable<Integer>> chunks = new ArrayList<>();
+        int targeted = plan(chunks);
+
+        int loaded = 0;
+        boolean complete = true;
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "user-cache-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // Chunks still running when the budget runs out are cancelled
+            for (Future<Integer> future : workers.invokeAll(chunks, budget.toNanos(), TimeUnit.NANOSECONDS)) {
+                if (future.isCancelled()) {
+                    complete = false;
+                    continue;
+                }
+                try {
+                    loaded += future.get();
+                } catch (ExecutionException e) {
+                    complete = false;
+                    log.warn("User cache warm-up chunk failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            complete = false;
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        duration.record(elapsed);
+        Result result = new Result(targeted, loaded, elapsed, complete);
+        lastResult = result;
+        finished = true;
+        log.info("User cache warm-up loaded {} of {} users in {} ms{}", loaded, targeted, elapsed.toMillis(),
+                complete ? "" : " (incomplete)");
+        return result;
+    }
+
+    private int plan(List<Callable<Integer>> chunks) {
+        List<String> hotKeys = readHotKeys();
+        if (hotKeys != null) {
+            for (int from = 0; from < hotKeys.size(); from += chunkSize) {
+                List<String> emails = hotKeys.subList(from, Math.min(hotKeys.size(), from + chunkSize));
+                chunks.add(() -> userCache.warm(() -> toPreview(userRepository.findByEmailIn(emails))));
+            }
+            return hotKeys.size();
+        }
+
+        if (maxUsers == 0) {
+            return 0;
+        }
+        // One id-only read fixes the chunk boundaries; each chunk then reads its id range, with no count or OFFSET
+        List<UUID> ids = userRepository.findIdsOrderById(Limit.of(maxUsers));
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            UUID first = ids.get(from);
+            UUID last = ids.get(Math.min(ids.size(), from + chunkSize) - 1);
+            chunks.add(() -> userCache.warm(() -> toPreview(userRepository.findByIdBetween(first, last))));
+        }
+        return ids.size();
+    }
+
+    private List<ResponseDTO> toPreview(List<User> users) {
+        return users.stream().map(userMapper::toPreviewUser).toList();
+    }
+
+    private List<String> readHotKeys() {
+        if (hotKeysFile == null || !Files.isReadable(hotKeysFile)) {
+            return null;
+        }
+        try (var lines = Files.lines(hotKeysFile, StandardCharsets.UTF_8)) {
+            return lines.map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .distinct()
+                    .limit(maxUsers)
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Could not read hot key file {}; falling back to a table scan", hotKeysFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * Persists the hottest emails so the next start warms the keys that mattered most.
+     */
+    @PreDestroy
+    public void saveHotKeys() {
+        if (hotKeysFile == null) {
+            return;
+        }
+        try {
+            Path parent = hotKeysFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "hot-keys", ".tmp");
+            Files.write(temp, userCache.hottest(maxUsers), StandardCharsets.UTF_8);
+            Files.move(temp, hotKeysFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write hot key file {}", hotKeysFile, e);
+        }
+    }
+
+    public Result getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Whether a warm-up has run to the end, successfully or not, or none is configured.
+     */
+    public boolean isFinished() {
+        return !enabled || finished;
+    }
+
+    public record Result(int targeted, int loaded, Duration elapsed, boolean complete) {
+        public double coverage() {
+            return targeted == 0 ? 1.0 : (double) loaded / targeted;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.test.services;
+
+import com.example.test.events.UserChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-Sent Events feed of committed user mutations. Recent events are kept in a bounded ring
+ * buffer so clients can resume with {@code Last-Event-ID}. Event ids are {@code <epoch>-<sequence>}
+ * with the process start time as epoch, so an id from before a restart is recognised as foreign
+ * instead of being mistaken for a new event with the same sequence. Every subscriber has its own
+ * bounded queue drained on a virtual thread; a subscriber whose queue overflows is disconnected,
+ * so writers never wait for slow consumers.
+ */
+@Component
+public class UserChangeFeed {
+    private static final Logger log = LoggerFactory.getLogger(UserChangeFeed.class);
+
+    static final String RESET_EVENT = "reset";
+    static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private final ObjectMapper objectMapper;
+    private final long epoch = System.currentTimeMillis();
+    private final FeedEvent[] ring;
+    private final int subscriberBacklog;
+    private final long emitterTimeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-changes-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this: the last assigned event id; the ring holds ids (lastId - ring.length, lastId]
+    private long lastId;
+
+    private final Counter published;
+    private final Counter dropped;
+
+    public UserChangeFeed(ObjectMapper objectMapper,
+                          @Value("${users.changes.buffer-size:1024}") int bufferSize,
+                          @Value("${users.changes.subscriber-backlog:256}") int subscriberBacklog,
+                          @Value("${users.changes.timeout:PT30M}") Duration emitterTimeout,
+                          @Value("${users.changes.heartbeat:PT15S}") Duration heartbeat,
+                          MeterRegistry meterRegistry) {
+        if (bufferSize <= 0 || subscriberBacklog <= 0) {
+            throw new IllegalArgumentException("Change feed buffer sizes must be positive");
+        }
+        this.objectMapper = objectMapper;
+        this.ring = new FeedEvent[bufferSize];
+        this.subscriberBacklog = subscriberBacklog;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.published = meterRegistry.counter("users.changes.events");
+        this.dropped = meterRegistry.counter("users.changes.subscribers.dropped");
+        meterRegistry.gaugeCollectionSize("users.changes.subscribers", List.of(), subscribers);
+
+        long heartbeatMillis = heartbeat.toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        FeedEvent feedEvent;
+        synchronized (this) {
+            feedEvent = new FeedEvent(++lastId, event.type().name().toLowerCase(Locale.ROOT), data);
+            ring[(int) (feedEvent.id % ring.length)] = feedEvent;
+            // Offering under the lock keeps every subscriber's queue in id order
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(feedEvent);
+            }
+        }
+        published.increment();
+    }
+
+    /**
+     * Opens a stream that first replays buffered events after {@code lastEventId}. If those events
+     * are no longer buffered, or the id comes from another process, a {@code reset} event tells the
+     * client to reload {@code /users/all}.
+     */
+    public SseEmitter subscribe(EventId lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(emitterTimeoutMillis));
+    }
+
+    SseEmitter subscribe(EventId lastEventId, SseEmitter emitter) {
+        Subscriber subscriber;
+        synchronized (this) {
+            List<FeedEvent> replay = new ArrayList<>();
+            long oldest = Math.max(1, lastId - ring.length + 1);
+            if (lastEventId != null && !lastEventId.equals(new EventId(epoch, lastId))) {
+                long after = lastEventId.sequence();
+                // Sequences of another epoch say nothing about ours; ids behind the ring have been overwritten
+                if (lastEventId.epoch() != epoch || after > lastId || after + 1 < oldest) {
+                    replay.add(new FeedEvent(lastId, RESET_EVENT, "{}"));
+                } else {
+                    for (long id = after + 1; id <= lastId; id++) {
+                        replay.add(ring[(int) (id % ring.length)]);
+                    }
+                }
+            }
+
+            subscriber = new Subscriber(emitter, replay.size() + subscriberBacklog);
+            replay.forEach(subscriber::offer);
+            subscribers.add(subscriber);
+        }
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.schedule();
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    long epoch() {
+        return epoch;
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(FeedEvent.HEARTBEAT);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    /**
+     * Position in the feed as sent in the SSE {@code id} field.
+     */
+    public record EventId(long epoch, long sequence) {
+
+        /**
+         * Parses {@code <epoch>-<sequence>}. A bare sequence, as sent before ids carried an epoch,
+         * gets epoch 0 and so always leads to a reset.
+         */
+        public static EventId parse(String value) {
+            String trimmed = value.trim();
+            int dash = trimmed.indexOf('-');
+            try {
+                EventId id = dash < 0
+                        ? new EventId(0, Long.parseLong(trimmed))
+                        : new EventId(Long.parseLong(trimmed.substring(0, dash)), Long.parseLong(trimmed.substring(dash + 1)));
+                if (id.epoch() >= 0 && id.sequence() >= 0) {
+                    return id;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException("Invalid Last-Event-ID: " + value);
+        }
+
+        @Override
+        public String toString() {
+            return epoch + "-" + sequence;
+        }
+    }
+
+    record FeedEvent(long id, String name, String data) {
+        static final FeedEvent HEARTBEAT = new FeedEvent(0, HEARTBEAT_COMMENT, null);
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<FeedEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void offer(FeedEvent event) {
+            if (overflowed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // Never block the writer: flag the subscriber and let its sender disconnect it
+                overflowed = true;
+                subscribers.remove(this);
+                dropped.increment();
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // Executor is shutting down
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                FeedEvent event;
+                while (!overflowed && (event = queue.poll()) != null) {
+                    if (event == FeedEvent.HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment(HEARTBEAT_COMMENT));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(epoch + "-" + event.id())
+                                .name(event.name())
+                                .data(event.data()));
+                    }
+                }
+                if (overflowed) {
+                    log.debug("Disconnecting slow change feed subscriber");
+                    emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // An event may have arrived after the last poll but before draining was cleared
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.example.test.services;
+
+import com.example.test.events.UserChangedEvent;
+import com.example.test.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Exact in-memory index of every registered email, mapping its 64-bit {@link EmailHash} to the
+ * user's id. It answers existence checks without the database; only emails whose answer is not
+ * certain, because two emails share a hash or another instance changed them, report
+ * {@link Lookup#UNKNOWN} and need a query.
+ * <p>
+ * The index is built in the background once the application is ready and then kept current from
+ * committed {@link UserChangedEvent}s. Until the first build completes every lookup is
+ * {@link Lookup#UNKNOWN}.
+ */
+@Component
+public class UserIdIndex {
+    private static final Logger log = LoggerFactory.getLogger(UserIdIndex.class);
+
+    public enum Lookup {
+        PRESENT,
+        ABSENT,
+        UNKNOWN
+    }
+
+    private final UserRepository userRepository;
+    private final int expectedUsers;
+    private final Duration rebuildInterval;
+    private final ScheduledExecutorService rebuilds = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-id-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Table current;
+    private volatile Table building;
+    // Emails changed while a build scans the table; the scan may have read them before or after
+    private final Set<String> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    private final Counter present;
+    private final Counter absent;
+    private final Counter unknown;
+    private final Timer rebuildTimer;
+
+    public UserIdIndex(UserRepository userRepository,
+                       @Value("${users.id-index.expected-users:1000000}") int expectedUsers,
+                       @Value("${users.id-index.rebuild-interval:PT6H}") Duration rebuildInterval,
+                       MeterRegistry meterRegistry) {
+        if (expectedUsers <= 0) {
+            throw new IllegalArgumentException("users.id-index.expected-users must be positive");
+        }
+        this.userRepository = userRepository;
+        this.expectedUsers = expectedUsers;
+        this.rebuildInterval = rebuildInterval;
+        this.present = meterRegistry.counter("users.id.index.lookups", "result", "present");
+        this.absent = meterRegistry.counter("users.id.index.lookups", "result", "absent");
+        this.unknown = meterRegistry.counter("users.id.index.lookups", "result", "unknown");
+        this.rebuildTimer = meterRegistry.timer("users.id.index.rebuild");
+        Gauge.builder("users.id.index.entries", this, index -> index.size())
+                .register(meterRegistry);
+        Gauge.builder("users.id.index.bytes", this, index -> index.memoryBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("users.id.index.ready", this, index -> index.isReady() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuilds.scheduleWithFixedDelay(this::rebuildQuietly, 0, rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public Lookup lookup(String email) {
+        Table table = current;
+        if (table == null || email == null) {
+            unknown.increment();
+            return Lookup.UNKNOWN;
+        }
+        Lookup result = table.lookup(EmailHash.of(email));
+        (result == Lookup.PRESENT ? present : result == Lookup.ABSENT ? absent : unknown).increment();
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.id() == null) {
+            markUnknown(emailsOf(event));
+            return;
+        }
+        apply(table -> {
+            if (event.previousEmail() != null && !event.previousEmail().equals(event.email())) {
+                table.remove(EmailHash.of(event.previousEmail()), event.id());
+            }
+            if (event.email() != null) {
+                if (event.type() == UserChangedEvent.Type.DELETED) {
+                    table.remove(EmailHash.of(event.email()), event.id());
+                } else {
+                    table.put(EmailHash.of(event.email()), event.id());
+                }
+            }
+        }, emailsOf(event));
+    }
+
+    /**
+     * Marks emails whose state is not known locally, for example after a write on another instance.
+     * Lookups for them return {@link Lookup#UNKNOWN} until the next rebuild.
+     */
+    public void markUnknown(Collection<String> emails) {
+        apply(table -> emails.forEach(email -> table.markUnknown(EmailHash.of(email))), emails);
+    }
+
+    /**
+     * Drops the index and schedules a rebuild; lookups return {@link Lookup#UNKNOWN} meanwhile.
+     */
+    public void reset() {
+        current = null;
+        requestRebuild();
+    }
+
+    /**
+     * Builds a fresh index from the database and swaps it in.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Table next = new Table(Math.max(expectedUsers, userRepository.count()));
+        touchedDuringBuild.clear();
+        building = next;
+        try {
+            List<UserRepository.UserKey> keys = userRepository.findAllKeys();
+            for (UserRepository.UserKey key : keys) {
+                if (key.getEmail() != null) {
+                    next.put(EmailHash.of(key.getEmail()), key.getId());
+                }
+            }
+            touchedDuringBuild.forEach(email -> next.markUnknown(EmailHash.of(email)));
+            current = next;
+            log.debug("Rebuilt user id index with {} users in {} bytes", next.size(), next.memoryBytes());
+        } finally {
+            building = null;
+            touchedDuringBuild.clear();
+            rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void requestRebuild() {
+        try {
+            rebuilds.execute(this::rebuildQuietly);
+        } catch (RuntimeException e) {
+            // Executor is shutting down
+            log.debug("User id index rebuild not scheduled", e);
+        }
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    public int size() {
+        Table table = current;
+        return table != null ? table.size() : 0;
+    }
+
+    public long memoryBytes() {
+        Table table = current;
+        return table != null ? table.memoryBytes() : 0;
+    }
+
+    private void apply(Consumer<Table> change, Collection<String> emails) {
+        // Read building before current: rebuild publishes current before clearing building
+        Table next = building;
+        Table live = current;
+        if (next != null) {
+            touchedDuringBuild.addAll(emails);
+            change.accept(next);
+        }
+        if (live != null && live != next) {
+            change.accept(live);
+        }
+    }
+
+    private static List<String> emailsOf(UserChangedEvent event) {
+        if (event.previousEmail() == null) {
+            return event.email() == null ? List.of() : List.of(event.email());
+        }
+        return event.email() == null ? List.of(event.previousEmail()) : List.of(event.email(), event.previousEmail());
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("User id index rebuild failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilds.shutdownNow();
+    }
+
+    /**
+     * Open-addressing table over one {@code long[]} with three longs per slot: the email hash and
+     * the two halves of the user id. Keeping a slot's fields adjacent means a probe usually touches
+     * one cache line. Hash 0 marks an empty slot; id {@code (0, 0)} marks an email that needs the
+     * database. The capacity is not rounded to a power of two, so a presized table stays near its
+     * 0.75 load factor, about 32 bytes per user. Reads are lock-free and retried under the read
+     * lock if a write interleaved.
+     */
+    static final class Table {
+        private static final int STRIDE = 3;
+        private static final int MAX_CAPACITY = (Integer.MAX_VALUE - 8) / STRIDE;
+
+        private final StampedLock lock = new StampedLock();
+        private long[] slots;
+        private int size;
+
+        Table(long expectedSize) {
+            long capacity = Math.max(16, expectedSize * 4 / 3 + 1);
+            if (capacity > MAX_CAPACITY) {
+                throw new IllegalArgumentException("User id index cannot hold " + expectedSize + " users");
+            }
+            this.slots = new long[(int) capacity * STRIDE];
+        }
+
+        Lookup lookup(long hash) {
+            long stamp = lock.tryOptimisticRead();
+            Lookup result = probe(slots, hash);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    result = probe(slots, hash);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return result;
+        }
+
+        // Bounded by the capacity so a torn optimistic read cannot spin forever
+        private static Lookup probe(long[] slots, long hash) {
+            int capacity = slots.length / STRIDE;
+            int slot = home(hash, capacity);
+            for (int probes = 0; probes < capacity; probes++, slot = next(slot, capacity)) {
+                int base = slot * STRIDE;
+                long key = slots[base];
+                if (key == 0) {
+                    return Lookup.ABSENT;
+                }
+                if (key == hash) {
+                    return slots[base + 1] == 0 && slots[base + 2] == 0 ? Lookup.UNKNOWN : Lookup.PRESENT;
+                }
+            }
+            return Lookup.UNKNOWN;
+        }
+
+        // Maps the mixed hash onto [0, capacity) with a multiply instead of a modulo
+        private static int home(long hash, int capacity) {
+            return (int) (((EmailHash.mix(hash) >>> 32) * capacity) >>> 32);
+        }
+
+        private static int next(int slot, int capacity) {
+            return slot + 1 == capacity ? 0 : slot + 1;
+        }
+
+        void put(long hash, UUID id) {
+            write(hash, id.getMostSignificantBits(), id.getLeastSignificantBits(), false);
+        }
+
+        void markUnknown(long hash) {
+            write(hash, 0, 0, true);
+        }
+
+        private void write(long hash, long high, long low, boolean overwrite) {
+            long stamp = lock.writeLock();
+            try {
+                int base = find(hash);
+                if (slots[base] == hash) {
+                    // Same hash, different user: two emails collide, so the hash alone proves nothing
+                    if (overwrite || slots[base + 1] != high || slots[base + 2] != low) {
+                        slots[base + 1] = 0;
+                        slots[base + 2] = 0;
+                    }
+                    return;
+                }
+                slots[base] = hash;
+                slots[base + 1] = high;
+                slots[base + 2] = low;
+                if (++size > slots.length / STRIDE * 3L / 4) {
+                    resize();
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Removes the hash if it belongs to the given user. A hash marked unknown stays marked,
+         * since another email with the same hash may still exist.
+         */
+        void remove(long hash, UUID id) {
+            long stamp = lock.writeLock();
+            try {
+                int base = find(hash);
+                if (slots[base] == hash && slots[base + 1] == id.getMostSignificantBits()
+                        && slots[base + 2] == id.getLeastSignificantBits()) {
+                    shiftBack(base / STRIDE);
+                    size--;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        long memoryBytes() {
+            long stamp = lock.readLock();
+            try {
+                return (long) slots.length * Long.BYTES;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // Returns the base of the slot holding the hash, or of the empty slot where it belongs
+        private int find(long hash) {
+            int capacity = slots.length / STRIDE;
+            int slot = home(hash, capacity);
+            while (slots[slot * STRIDE] != 0 && slots[slot * STRIDE] != hash) {
+                slot = next(slot, capacity);
+            }
+            return slot * STRIDE;
+        }
+
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        private void shiftBack(int gap) {
+            int capacity = slots.length / STRIDE;
+            for (int slot = next(gap, capacity); slots[slot * STRIDE] != 0; slot = next(slot, capacity)) {
+                int home = home(slots[slot * STRIDE], capacity);
+                if (Math.floorMod(slot - home, capacity) >= Math.floorMod(slot - gap, capacity)) {
+                    System.arraycopy(slots, slot * STRIDE, slots, gap * STRIDE, STRIDE);
+                    gap = slot;
+                }
+            }
+            slots[gap * STRIDE] = 0;
+            slots[gap * STRIDE + 1] = 0;
+            slots[gap * STRIDE + 2] = 0;
+        }
+
+        private void resize() {
+            long[] old = slots;
+            long capacity = (long) old.length / STRIDE * 2;
+            if (capacity > MAX_CAPACITY) {
+                throw new IllegalStateException("User id index is full");
+            }
+            slots = new long[(int) capacity * STRIDE];
+            for (int base = 0; base < old.length; base += STRIDE) {
+                if (old[base] != 0) {
+                    int slot = home(old[base], (int) capacity);
+                    while (slots[slot * STRIDE] != 0) {
+                        slot = next(slot, (int) capacity);
+                    }
+                    System.arraycopy(old, base, slots, slot * STRIDE, STRIDE);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.test.services;
+
+import com.example.test.dto.ResponseDTO;
+import com.example.test.events.UserChangedEvent;
+import com.example.test.jfr.SerializationEvent;
+import com.example.test.slowlog.RequestProfile;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the serialized {@code /users/all} JSON body, and a gzip copy of it, for the current
+ * collection version. The version is bumped after every committed write made through
+ * {@link UserService}; writes that bypass the service must call {@link #invalidate()}.
+ */
+@Component
+public class UserListCache {
+    private final ObjectWriter listWriter;
+    private final long maxBytes;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Body cached;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter rejected;
+
+    public UserListCache(ObjectMapper objectMapper,
+                         @Value("${users.list-cache.max-bytes:16MB}") DataSize maxBytes,
+                         MeterRegistry meterRegistry) {
+        // Resolved once so a miss does not look up the list serializer again
+        this.listWriter = objectMapper.writerFor(new TypeReference<List<ResponseDTO>>() {
+        });
+        this.maxBytes = maxBytes.toBytes();
+        this.hits = meterRegistry.counter("users.list.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("users.list.cache.requests", "result", "miss");
+        this.rejected = meterRegistry.counter("users.list.cache.rejected");
+        Gauge.builder("users.list.cache.bytes", this, cache -> cache.cachedBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the body for the current version, loading and serializing it on a miss.
+     */
+    public Body get(Supplier<List<ResponseDTO>> loader) {
+        Body body = cached;
+        if (body != null && body.version == version.get()) {
+            hits.increment();
+            return body;
+        }
+
+        // One caller rebuilds the body; concurrent misses wait for it instead of scanning the table too
+        synchronized (this) {
+            long current = version.get();
+            body = cached;
+            if (body != null && body.version == current) {
+                hits.increment();
+                return body;
+            }
+            misses.increment();
+
+            body = Body.of(current, loader.get(), listWriter);
+            if (body.size() <= maxBytes) {
+                cached = body;
+            } else {
+                cached = null;
+                rejected.increment();
+            }
+            return body;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+        cached = null;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    private long cachedBytes() {
+        Body body = cached;
+        return body != null ? body.size() : 0;
+    }
+
+    public static final class Body {
+        private final long version;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        private Body(long version, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        static Body of(long version, List<ResponseDTO> users, ObjectWriter listWriter) {
+            if (users.isEmpty()) {
+                return new Body(version, null, null);
+            }
+            try {
+                long start = System.nanoTime();
+                SerializationEvent event = new SerializationEvent();
+                event.begin();
+                byte[] json = listWriter.writeValueAsBytes(users);
+                event.finish("list-cache", List.class, "application/json", json.length);
+                RequestProfile.record("serialization", "list-cache", System.nanoTime() - start);
+                return new Body(version, json, gzip(json));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public boolean isEmpty() {
+            return json == null;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        long size() {
+            return isEmpty() ? 0 : (long) json.length + gzip.length;
+        }
+
+        private static byte[] gzip(byte[] json) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
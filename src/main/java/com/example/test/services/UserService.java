@@ -1,11 +1,16 @@
 package com.example.test.services;
 
+import com.example.test.cluster.UserInvalidationBus;
 import com.example.test.dto.RequestDTO;
 import com.example.test.dto.ResponseDTO;
+import com.example.test.events.UserChangedEvent;
 import com.example.test.exceptions.DuplicateUserException;
 import com.example.test.exceptions.UserNotFoundException;
 import com.example.test.model.User;
 import com.example.test.repository.UserRepository;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,13 +18,26 @@ import java.util.List;
 
 
 @Service
+@Observed(name = "users.service")
 public class UserService {
     private final UserMapper userMapper;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserCache userCache;
+    private final EmailBloomFilter emailFilter;
+    private final UserIdIndex userIdIndex;
+    private final UserInvalidationBus invalidationBus;
 
-    public UserService(UserMapper userMapper, UserRepository userRepository) {
+    public UserService(UserMapper userMapper, UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                       UserCache userCache, EmailBloomFilter emailFilter, UserIdIndex userIdIndex,
+                       UserInvalidationBus invalidationBus) {
         this.userMapper = userMapper;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.userCache = userCache;
+        this.emailFilter = emailFilter;
+        this.userIdIndex = userIdIndex;
+        this.invalidationBus = invalidationBus;
     }
 
     public User findUserByEmail(String email) {
@@ -29,38 +47,72 @@ public class UserService {
                 );
     }
 
+    public boolean userExists(String email) {
+        // Only a running bus tells this instance about users created elsewhere; without it a local miss proves nothing
+        boolean localMissIsDefinite = invalidationBus.isActive();
+        return switch (userIdIndex.lookup(email)) {
+            case PRESENT -> true;
+            case ABSENT -> !localMissIsDefinite && existsUncached(email);
+            // Index not built yet, hash collision or changed elsewhere
+            case UNKNOWN -> (!localMissIsDefinite || emailFilter.mightContain(email)) && existsUncached(email);
+        };
+    }
+
+    private boolean existsUncached(String email) {
+        return userCache.contains(email) || userRepository.findByEmail(email).isPresent();
+    }
+
     public void userDoesExist(String email) {
-        if (userRepository.findByEmail(email).isPresent()) {
+        if (userExists(email)) {
             throw new DuplicateUserException("User with email " + email + " already exists");
         }
     }
 
     // To Save User
+    @Transactional
     public User toSaveUser(RequestDTO dto) {
         userDoesExist(dto.getEmail());
 
-        return userRepository.save(userMapper.toEntity(dto));
+        User saved = saveUnique(userMapper.toEntity(dto));
+        eventPublisher.publishEvent(UserChangedEvent.created(saved));
+        return saved;
     }
 
     // To Update User
+    @Transactional
     public User toUpdateUser(String email, RequestDTO dto) {
         User userToUpdate = findUserByEmail(email);
+        String previousEmail = userToUpdate.getEmail();
 
         userMapper.toUpdateEntity(userToUpdate, dto);
-        return userRepository.save(userToUpdate);
+        User saved = saveUnique(userToUpdate);
+        eventPublisher.publishEvent(UserChangedEvent.updated(userToUpdate, previousEmail));
+        return saved;
+    }
+
+    // The unique email constraint catches creates that raced past userDoesExist, e.g. on another instance
+    private User saveUnique(User user) {
+        try {
+            User saved = userRepository.save(user);
+            userRepository.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateUserException("User with email " + user.getEmail() + " already exists", e);
+        }
     }
 
     // To Delete User
+    @Transactional
     public void toDeleteUser(String email) {
-        findUserByEmail(email);
+        User userToDelete = findUserByEmail(email);
         userRepository.deleteByEmail(email);
+        eventPublisher.publishEvent(UserChangedEvent.deleted(userToDelete));
     }
 
     // To Preview Single User
     @Transactional(readOnly = true)
     public ResponseDTO toPreviewUser(String email) {
-        User toPreview = findUserByEmail(email);
-        return userMapper.toPreviewUser(toPreview);
+        return userCache.get(email, key -> userMapper.toPreviewUser(findUserByEmail(key)));
     }
 
     // To Preview All Users
@@ -0,0 +1,45 @@
+package com.example.test.slowlog;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+/**
+ * Records bean validation of request bodies as a {@code validation} phase.
+ */
+public class ProfilingValidator implements SmartValidator {
+    private final SmartValidator delegate;
+
+    public ProfilingValidator(SmartValidator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        long start = System.nanoTime();
+        delegate.validate(target, errors);
+        RequestProfile.record("validation", target.getClass().getSimpleName(), System.nanoTime() - start);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        long start = System.nanoTime();
+        delegate.validate(target, errors, validationHints);
+        RequestProfile.record("validation", target.getClass().getSimpleName(), System.nanoTime() - start);
+    }
+
+    @Override
+    public void validateValue(Class<?> targetType, String fieldName, Object value, Errors errors,
+                              Object... validationHints) {
+        delegate.validateValue(targetType, fieldName, value, errors, validationHints);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) {
+        return delegate.unwrap(type);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.test.slowlog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the phases of the request running on the current thread: validation, password
+ * hashing, each SQL statement and response serialization. Phases are written into arrays that
+ * are reused across requests on the same thread and only copied out when the request turns out
+ * to be slow, so a fast request pays for a thread-local lookup and a few stores per phase.
+ * Phases recorded on threads that are not profiling, such as cache refreshes, are ignored.
+ */
+public final class RequestProfile {
+    static final int MAX_PHASES = 64;
+    static final int MAX_DETAIL_LENGTH = 256;
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private final String[] names = new String[MAX_PHASES];
+    private final String[] details = new String[MAX_PHASES];
+    private final long[] ends = new long[MAX_PHASES];
+    private final long[] durations = new long[MAX_PHASES];
+    private boolean active;
+    private long startNanos;
+    private int size;
+    private int dropped;
+
+    private RequestProfile() {
+    }
+
+    static void start() {
+        RequestProfile profile = CURRENT.get();
+        if (profile == null) {
+            profile = new RequestProfile();
+            CURRENT.set(profile);
+        }
+        Arrays.fill(profile.names, 0, profile.size, null);
+        Arrays.fill(profile.details, 0, profile.size, null);
+        profile.active = true;
+        profile.startNanos = System.nanoTime();
+        profile.size = 0;
+        profile.dropped = 0;
+    }
+
+    /**
+     * Records a phase that ended just now and took {@code durationNanos}. The detail, such as the
+     * SQL text, is only kept by reference until the request finishes.
+     */
+    public static void record(String phase, String detail, long durationNanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile == null || !profile.active) {
+            return;
+        }
+        int index = profile.size;
+        if (index == MAX_PHASES) {
+            profile.dropped++;
+            return;
+        }
+        profile.names[index] = phase;
+        profile.details[index] = detail;
+        profile.ends[index] = System.nanoTime();
+        profile.durations[index] = durationNanos;
+        profile.size = index + 1;
+    }
+
+    /**
+     * Stops profiling and returns the thread's profile, which stays valid until the next
+     * {@link #start()} on this thread.
+     */
+    static RequestProfile stop() {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.active = false;
+        }
+        return profile;
+    }
+
+    List<SlowRequestLog.Phase> phases() {
+        List<SlowRequestLog.Phase> phases = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long start = ends[i] - durations[i] - startNanos;
+            phases.add(new SlowRequestLog.Phase(names[i], truncate(details[i]), millis(Math.max(0, start)),
+                    millis(durations[i])));
+        }
+        return phases;
+    }
+
+    int dropped() {
+        return dropped;
+    }
+
+    static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static String truncate(String detail) {
+        if (detail == null || detail.length() <= MAX_DETAIL_LENGTH) {
+            return detail;
+        }
+        return detail.substring(0, MAX_DETAIL_LENGTH - 3) + "...";
+    }
+}
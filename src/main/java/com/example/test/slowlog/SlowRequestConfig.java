@@ -0,0 +1,22 @@
+package com.example.test.slowlog;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class SlowRequestConfig implements WebMvcConfigurer {
+    private final ObjectProvider<jakarta.validation.Validator> validator;
+
+    public SlowRequestConfig(ObjectProvider<jakarta.validation.Validator> validator) {
+        this.validator = validator;
+    }
+
+    // Spring MVC validates @Valid bodies with the application's validator, timed per request
+    @Override
+    public Validator getValidator() {
+        return validator.getIfUnique() instanceof SmartValidator smart ? new ProfilingValidator(smart) : null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.test.slowlog;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Profiles every request with {@link RequestProfile} and hands the ones slower than the threshold
+ * to {@link SlowRequestLog}. The query string is left out because it carries email addresses.
+ * Requests that go async (the change feed) are not recorded.
+ */
+@Component
+public class SlowRequestFilter extends OncePerRequestFilter {
+    private final SlowRequestLog slowRequestLog;
+
+    public SlowRequestFilter(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestProfile.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestProfile profile = RequestProfile.stop();
+            long elapsed = System.nanoTime() - start;
+            if (slowRequestLog.isSlow(elapsed) && !request.isAsyncStarted()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                slowRequestLog.add(new SlowRequestLog.SlowRequest(
+                        Instant.now().minusNanos(elapsed),
+                        request.getMethod(),
+                        pattern != null ? pattern.toString() : request.getRequestURI(),
+                        response.getStatus(),
+                        RequestProfile.millis(elapsed),
+                        profile.phases(),
+                        profile.dropped()));
+            }
+        }
+    }
+}
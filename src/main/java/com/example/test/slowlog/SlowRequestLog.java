@@ -0,0 +1,81 @@
+package com.example.test.slowlog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the last {@code users.slow-requests.capacity} requests that took at least
+ * {@code users.slow-requests.threshold}, overwriting the oldest. Served by
+ * {@link SlowRequestsEndpoint}.
+ */
+@Component
+public class SlowRequestLog {
+    private final long thresholdNanos;
+    private final AtomicReferenceArray<SlowRequest> entries;
+    private final AtomicLong written = new AtomicLong();
+    private final Counter recorded;
+
+    public SlowRequestLog(@Value("${users.slow-requests.threshold:PT1S}") Duration threshold,
+                          @Value("${users.slow-requests.capacity:100}") int capacity,
+                          MeterRegistry meterRegistry) {
+        if (threshold.isNegative() || capacity <= 0) {
+            throw new IllegalArgumentException("Slow request threshold and capacity must be positive");
+        }
+        this.thresholdNanos = threshold.toNanos();
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.recorded = Counter.builder("users.requests.slow")
+                .description("Requests slower than the slow-request threshold")
+                .register(meterRegistry);
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    public void add(SlowRequest request) {
+        long sequence = written.getAndIncrement();
+        entries.set((int) (sequence % entries.length()), request);
+        recorded.increment();
+    }
+
+    /**
+     * Returns the recorded requests, newest first.
+     */
+    public List<SlowRequest> recent() {
+        int capacity = entries.length();
+        long newest = written.get() - 1;
+        List<SlowRequest> recent = new ArrayList<>();
+        for (long sequence = newest; sequence >= 0 && sequence > newest - capacity; sequence--) {
+            SlowRequest request = entries.get((int) (sequence % capacity));
+            if (request != null) {
+                recent.add(request);
+            }
+        }
+        return recent;
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+    }
+
+    public record SlowRequest(Instant timestamp, String method, String uri, int status, double durationMs,
+                              List<Phase> phases, int droppedPhases) {
+    }
+
+    /**
+     * One phase of a slow request; {@code startMs} is the offset from the start of the request.
+     */
+    public record Phase(String name, String detail, double startMs, double durationMs) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.test.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+
+/**
+ * Head sampler that leaves room for tail sampling. New traces are sampled with the configured
+ * probability and sampled parents are followed. When tail sampling is on, everything else is
+ * recorded without being sampled, so {@link TailSamplingSpanProcessor} can still keep the trace
+ * if it turns out slow. With the probability at zero and tail sampling off, spans are dropped at
+ * creation and cost next to nothing.
+ */
+public class TailSampler implements Sampler {
+    private final Sampler head;
+    private final SamplingResult unsampled;
+
+    public TailSampler(double probability, boolean tailEnabled) {
+        this.head = Sampler.traceIdRatioBased(probability);
+        this.unsampled = tailEnabled ? SamplingResult.recordOnly() : SamplingResult.drop();
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        SpanContext parent = Span.fromContext(parentContext).getSpanContext();
+        if (parent.isValid()) {
+            if (parent.isSampled()) {
+                return SamplingResult.recordAndSample();
+            }
+            // An upstream service already decided against this trace
+            return parent.isRemote() ? SamplingResult.drop() : unsampled;
+        }
+        SamplingResult result = head.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+        return result.getDecision() == SamplingDecision.RECORD_AND_SAMPLE ? result : unsampled;
+    }
+
+    @Override
+    public String getDescription() {
+        return "TailSampler{head=" + head.getDescription() + ", unsampled=" + unsampled.getDecision() + "}";
+    }
+}
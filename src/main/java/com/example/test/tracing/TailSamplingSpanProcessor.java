@@ -0,0 +1,174 @@
+package com.example.test.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps traces the head sampler passed over when they turn out slow or failed. Spans recorded
+ * but not sampled (see {@link TailSampler}) are buffered per trace until the local root span
+ * ends; the trace is then exported if the root took at least {@code slowThreshold} or ended with
+ * an error, and discarded otherwise. Sampled spans are left to the regular batch processor.
+ * <p>
+ * Traces are buffered in a concurrent map keyed by trace id, so request threads only contend on
+ * their own trace. Kept traces go to an internal {@link BatchSpanProcessor} and are exported from
+ * its worker thread; ending a span never waits on the exporter.
+ * <p>
+ * At most {@code maxTraces} traces are buffered; the oldest is evicted to make room, which also
+ * cleans up after roots that never end.
+ */
+public class TailSamplingSpanProcessor implements SpanProcessor {
+    private static final int MAX_SPANS_PER_TRACE = 256;
+
+    private final long slowNanos;
+    private final int maxTraces;
+    private final Map<String, Trace> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final BatchSpanProcessor batch;
+
+    private final Counter kept;
+    private final Counter discarded;
+    private final Counter evicted;
+
+    public TailSamplingSpanProcessor(SpanExporter exporter, Duration slowThreshold, int maxTraces,
+                                     MeterRegistry meterRegistry) {
+        if (maxTraces <= 0) {
+            throw new IllegalArgumentException("Tail sampling must buffer at least one trace");
+        }
+        this.slowNanos = slowThreshold.toNanos();
+        this.maxTraces = maxTraces;
+        this.batch = BatchSpanProcessor.builder(new SharedExporter(exporter))
+                .setExportUnsampledSpans(true)
+                .build();
+        this.kept = meterRegistry.counter("users.tracing.tail", "result", "kept");
+        this.discarded = meterRegistry.counter("users.tracing.tail", "result", "discarded");
+        this.evicted = meterRegistry.counter("users.tracing.tail", "result", "evicted");
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanContext context = span.getSpanContext();
+        if (context.isSampled()) {
+            return;
+        }
+        if (span.getParentSpanContext().isValid()) {
+            Trace trace = pending.get(context.getTraceId());
+            if (trace == null) {
+                trace = pending.computeIfAbsent(context.getTraceId(), traceId -> new Trace(sequence.getAndIncrement()));
+                if (pending.size() > maxTraces) {
+                    evictOldest();
+                }
+            }
+            trace.add(span);
+            return;
+        }
+
+        Trace trace = pending.remove(context.getTraceId());
+        if (span.getLatencyNanos() < slowNanos && span.toSpanData().getStatus().getStatusCode() != StatusCode.ERROR) {
+            discarded.increment();
+            return;
+        }
+        if (trace != null) {
+            trace.drainTo(batch);
+        }
+        batch.onEnd(span);
+        kept.increment();
+    }
+
+    // Only runs when the buffer overflows, so a scan for the oldest trace is cheap enough
+    private void evictOldest() {
+        Map.Entry<String, Trace> oldest = null;
+        for (Map.Entry<String, Trace> entry : pending.entrySet()) {
+            if (oldest == null || entry.getValue().sequence < oldest.getValue().sequence) {
+                oldest = entry;
+            }
+        }
+        if (oldest != null && pending.remove(oldest.getKey(), oldest.getValue())) {
+            evicted.increment();
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    int pendingTraces() {
+        return pending.size();
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return batch.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        pending.clear();
+        return batch.shutdown();
+    }
+
+    private static final class Trace {
+        private final long sequence;
+        private final List<ReadableSpan> spans = new ArrayList<>();
+
+        Trace(long sequence) {
+            this.sequence = sequence;
+        }
+
+        synchronized void add(ReadableSpan span) {
+            if (spans.size() < MAX_SPANS_PER_TRACE) {
+                spans.add(span);
+            }
+        }
+
+        synchronized void drainTo(SpanProcessor processor) {
+            spans.forEach(processor::onEnd);
+            spans.clear();
+        }
+    }
+
+    // The exporter is shared with Boot's batch processor, which owns its shutdown
+    private record SharedExporter(SpanExporter delegate) implements SpanExporter {
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            return delegate.export(spans);
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return delegate.flush();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
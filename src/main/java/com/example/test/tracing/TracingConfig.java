@@ -0,0 +1,62 @@
+package com.example.test.tracing;
+
+import com.example.test.config.PasswordEncryptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Spans come from Micrometer observations bridged to OpenTelemetry: HTTP requests, every
+ * {@code UserService} method ({@code @Observed}), each JDBC statement (datasource-micrometer on
+ * the proxied DataSource) and BCrypt calls in {@link PasswordEncryptor}. Spring Boot exports
+ * sampled spans over OTLP once {@code management.otlp.tracing.endpoint} is set; the beans here add
+ * tail sampling of slow traces and an optional rolling JSON-lines file.
+ */
+@Configuration
+public class TracingConfig {
+
+    // Replaces Boot's ratio sampler; the same property still sets the head probability
+    @Bean
+    public Sampler otelSampler(@Value("${management.tracing.sampling.probability:0.1}") double probability,
+                               @Value("${users.tracing.tail.enabled:true}") boolean tailEnabled) {
+        return new TailSampler(probability, tailEnabled);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "users.tracing.tail.enabled", havingValue = "true", matchIfMissing = true)
+    public TailSamplingSpanProcessor tailSamplingSpanProcessor(ObjectProvider<SpanExporter> exporters,
+                                                               @Value("${users.tracing.tail.slow-threshold:PT0.5S}") Duration slowThreshold,
+                                                               @Value("${users.tracing.tail.max-traces:1000}") int maxTraces,
+                                                               MeterRegistry meterRegistry) {
+        return new TailSamplingSpanProcessor(SpanExporter.composite(exporters.orderedStream().toList()),
+                slowThreshold, maxTraces, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${users.tracing.file.path:}' != ''")
+    public RollingFileSpanExporter rollingFileSpanExporter(ObjectMapper objectMapper,
+                                                           @Value("${users.tracing.file.path}") String path,
+                                                           @Value("${users.tracing.file.max-size:10MB}") DataSize maxSize,
+                                                           @Value("${users.tracing.file.max-files:5}") int maxFiles) {
+        return new RollingFileSpanExporter(objectMapper, Path.of(path), maxSize.toBytes(), maxFiles);
+    }
+
+    // PasswordEncryptor is static, so it is handed the tracer once the context is up
+    @Bean
+    public SmartInitializingSingleton passwordEncryptorTracing(ObjectProvider<Tracer> tracer) {
+        return () -> PasswordEncryptor.useTracer(tracer.getIfAvailable());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.test.cluster;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MulticastInvalidationTransportTest {
+
+    @Mock
+    private InvalidationTransport.Listener listener;
+
+    private final MulticastInvalidationTransport transport =
+            new MulticastInvalidationTransport("239.255.42.99", 45990, "", 1);
+
+    @Test
+    void testEncodeDecode_ShouldRoundTripBatch() throws Exception {
+        // Given
+        InvalidationBatch batch = new InvalidationBatch("node-1", 42, List.of("a@example.com", "josé@example.com"));
+
+        // When
+        byte[] bytes = MulticastInvalidationTransport.encode(batch);
+        InvalidationBatch decoded = MulticastInvalidationTransport.decode(bytes, 0, bytes.length);
+
+        // Then
+        assertEquals(batch, decoded);
+    }
+
+    @Test
+    void testDecode_WithForeignDatagram_ShouldReturnNull() throws Exception {
+        // Given
+        byte[] bytes = {0, 0, 0, 1, 0, 0};
+
+        // When & Then
+        assertNull(MulticastInvalidationTransport.decode(bytes, 0, bytes.length));
+    }
+
+    @Test
+    void testDeliver_WithRepeatedVersion_ShouldDeliverOnce() {
+        // Given
+        InvalidationBatch batch = new InvalidationBatch("node-1", 1, List.of("a@example.com"));
+
+        // When
+        transport.deliver(batch, listener);
+        transport.deliver(batch, listener);
+
+        // Then
+        verify(listener, times(1)).onBatch(batch);
+        verify(listener, never()).onResync();
+    }
+
+    @Test
+    void testDeliver_WithVersionGap_ShouldResyncBeforeDelivering() {
+        // Given
+        InvalidationBatch first = new InvalidationBatch("node-1", 1, List.of("a@example.com"));
+        InvalidationBatch third = new InvalidationBatch("node-1", 3, List.of("c@example.com"));
+
+        // When
+        transport.deliver(first, listener);
+        transport.deliver(third, listener);
+
+        // Then
+        InOrder inOrder = inOrder(listener);
+        inOrder.verify(listener).onBatch(first);
+        inOrder.verify(listener).onResync();
+        inOrder.verify(listener).onBatch(third);
+    }
+
+    @Test
+    void testDeliver_ShouldTrackVersionsPerNode() {
+        // When
+        transport.deliver(new InvalidationBatch("node-1", 5, List.of("a@example.com")), listener);
+        transport.deliver(new InvalidationBatch("node-2", 1, List.of("b@example.com")), listener);
+
+        // Then
+        verify(listener, times(2)).onBatch(any());
+        verify(listener, never()).onResync();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.test.cluster;
+
+import com.example.test.dto.ResponseDTO;
+import com.example.test.events.UserChangedEvent;
+import com.example.test.services.EmailBloomFilter;
+import com.example.test.services.OffHeapUserStore;
+import com.example.test.services.UserCache;
+import com.example.test.services.UserIdIndex;
+import com.example.test.services.UserListCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserInvalidationBusTest {
+
+    @Mock
+    private ObjectProvider<InvalidationTransport> transportProvider;
+
+    @Mock
+    private InvalidationTransport transport;
+
+    @Mock
+    private EmailBloomFilter emailFilter;
+
+    @Mock
+    private UserIdIndex userIdIndex;
+
+    private MeterRegistry meterRegistry;
+    private UserCache userCache;
+    private UserListCache userListCache;
+    private OffHeapUserStore offHeapUserStore;
+    private UserInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(100, Duration.ofMinutes(5), Duration.ofMinutes(10), 1, 100, meterRegistry);
+        userListCache = new UserListCache(new ObjectMapper(), DataSize.ofMegabytes(1), meterRegistry);
+        offHeapUserStore = new OffHeapUserStore(new ObjectMapper(), DataSize.ofMegabytes(1), DataSize.ofMegabytes(1),
+                Duration.ofMinutes(10), userCache, meterRegistry);
+        when(transportProvider.getIfAvailable()).thenReturn(transport);
+        bus = new UserInvalidationBus(transportProvider, userCache, userListCache, emailFilter, offHeapUserStore, userIdIndex,
+                Duration.ofMinutes(1), 2, meterRegistry);
+    }
+
+    private static UserChangedEvent updated(String email, String previousEmail) {
+        return new UserChangedEvent(UserChangedEvent.Type.UPDATED, UUID.randomUUID(), email, previousEmail);
+    }
+
+    private void cache(String email) {
+        userCache.get(email, key -> new ResponseDTO(UUID.randomUUID(), "John Doe", key, "hash"));
+        offHeapUserStore.get(email, key -> new ResponseDTO(UUID.randomUUID(), "John Doe", key, "hash"));
+    }
+
+    @Test
+    void testFlush_ShouldSendPendingEmailsInBoundedBatchesWithIncreasingVersions() {
+        // Given
+        bus.onUserChanged(updated("a@example.com", "old-a@example.com"));
+        bus.onUserChanged(updated("b@example.com", null));
+
+        // When
+        bus.flush();
+
+        // Then
+        ArgumentCaptor<InvalidationBatch> captor = ArgumentCaptor.forClass(InvalidationBatch.class);
+        verify(transport, times(2)).publish(captor.capture());
+        List<InvalidationBatch> batches = captor.getAllValues();
+        assertEquals(2, batches.get(0).emails().size());
+        assertEquals(1, batches.get(1).emails().size());
+        assertEquals(1, batches.get(0).version());
+        assertEquals(2, batches.get(1).version());
+        assertEquals(bus.getNodeId(), batches.get(0).nodeId());
+
+        Set<String> emails = new HashSet<>();
+        batches.forEach(batch -> emails.addAll(batch.emails()));
+        assertEquals(Set.of("a@example.com", "old-a@example.com", "b@example.com"), emails);
+    }
+
+    @Test
+    void testFlush_WithNothingPending_ShouldNotPublish() {
+        // When
+        bus.flush();
+
+        // Then
+        verify(transport, never()).publish(any());
+    }
+
+    @Test
+    void testFlush_WhenPublishFails_ShouldRetryOnNextFlush() {
+        // Given
+        bus.onUserChanged(updated("a@example.com", null));
+        doThrow(new RuntimeException("Network down")).doNothing().when(transport).publish(any());
+
+        // When
+        bus.flush();
+        bus.flush();
+
+        // Then
+        verify(transport, times(2)).publish(any());
+    }
+
+    @Test
+    void testOnBatch_FromOtherNode_ShouldEvictLocalCaches() {
+        // Given
+        cache("a@example.com");
+        cache("b@example.com");
+        long listVersion = userListCache.getVersion();
+
+        // When
+        bus.onBatch(new InvalidationBatch("other-node", 1, List.of("a@example.com")));
+
+        // Then
+        assertFalse(userCache.contains("a@example.com"));
+        assertTrue(userCache.contains("b@example.com"));
+        assertFalse(offHeapUserStore.contains("a@example.com"));
+        assertTrue(offHeapUserStore.contains("b@example.com"));
+        assertTrue(userListCache.getVersion() > listVersion);
+        verify(emailFilter).put("a@example.com");
+        verify(userIdIndex).markUnknown(List.of("a@example.com"));
+    }
+
+    @Test
+    void testOnBatch_FromSameNode_ShouldBeIgnored() {
+        // Given
+        cache("a@example.com");
+
+        // When
+        bus.onBatch(new InvalidationBatch(bus.getNodeId(), 1, List.of("a@example.com")));
+
+        // Then
+        assertTrue(userCache.contains("a@example.com"));
+        verifyNoInteractions(emailFilter);
+    }
+
+    @Test
+    void testOnResync_ShouldDropEverythingAndRebuildFilter() {
+        // Given
+        cache("a@example.com");
+
+        // When
+        bus.onResync();
+
+        // Then
+        assertFalse(userCache.contains("a@example.com"));
+        assertFalse(offHeapUserStore.contains("a@example.com"));
+        verify(emailFilter).requestRebuild();
+        verify(userIdIndex).reset();
+        assertEquals(1.0, meterRegistry.get("users.invalidation.resyncs").counter().count());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.test.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoarseClockTest {
+
+    @Test
+    void testNow_ShouldBeTruncatedToSeconds() {
+        // When
+        LocalDateTime now = CoarseClock.now();
+
+        // Then
+        assertEquals(0, now.getNano());
+    }
+
+    @Test
+    void testNow_ShouldBeCloseToSystemClock() {
+        // Given
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        // When
+        LocalDateTime now = CoarseClock.now();
+
+        // Then
+        LocalDateTime after = LocalDateTime.now();
+        assertFalse(now.isBefore(before));
+        assertFalse(now.isAfter(after));
+    }
+
+    @Test
+    void testNow_WithinSameSecond_ShouldReturnCachedInstance() {
+        // Given
+        LocalDateTime first;
+        LocalDateTime second;
+        do {
+            first = CoarseClock.now();
+            second = CoarseClock.now();
+        } while (!first.equals(second));
+
+        // Then
+        assertSame(first, second);
+    }
+}
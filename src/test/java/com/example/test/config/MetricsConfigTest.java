@@ -0,0 +1,86 @@
+package com.example.test.config;
+
+import com.example.test.cluster.UserInvalidationBus;
+import com.example.test.repository.UserRepository;
+import com.example.test.services.EmailBloomFilter;
+import com.example.test.services.UserCache;
+import com.example.test.services.UserIdIndex;
+import com.example.test.services.UserMapper;
+import com.example.test.services.UserService;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsConfigTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private EmailBloomFilter emailFilter;
+
+    @Mock
+    private UserIdIndex userIdIndex;
+
+    @Mock
+    private UserInvalidationBus invalidationBus;
+
+    @Test
+    void testObservedAspect_ShouldTimeEveryUserServiceMethod() {
+        // Given
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        // Same effect as management.metrics.distribution.percentiles-histogram.users.service=true
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(registry));
+        AspectJProxyFactory factory = new AspectJProxyFactory(new UserService(new UserMapper(), userRepository,
+                eventPublisher, userCache, emailFilter, userIdIndex, invalidationBus));
+        factory.addAspect(new MetricsConfig().observedAspect(observationRegistry));
+        UserService userService = factory.getProxy();
+        when(userIdIndex.lookup("john@example.com")).thenReturn(UserIdIndex.Lookup.ABSENT);
+
+        // When
+        userService.userExists("john@example.com");
+        userService.userDoesExist("john@example.com");
+
+        // Then
+        Timer exists = registry.get("users.service").tag("method", "userExists").timer();
+        Timer doesExist = registry.get("users.service").tag("method", "userDoesExist").timer();
+        assertEquals(1, exists.count());
+        assertEquals(1, doesExist.count());
+        // Histogram buckets are what lets Prometheus aggregate percentiles across instances
+        assertTrue(exists.takeSnapshot().histogramCounts().length > 0);
+        String scrape = registry.scrape();
+        assertTrue(scrape.contains("users_service_seconds_bucket{") && scrape.contains("method=\"userExists\""),
+                "no histogram buckets in scrape");
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("users_service_seconds_bucket{")
+                && line.contains("method=\"userExists\"") && line.contains("le=\"+Inf\"") && line.endsWith(" 1")),
+                "userExists +Inf bucket should hold the one call");
+    }
+}
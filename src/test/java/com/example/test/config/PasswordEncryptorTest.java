@@ -1,10 +1,20 @@
 package com.example.test.config;
 
+import com.example.test.jfr.PasswordHashEvent;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.nio.file.Path;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Password Encryptor Tests")
@@ -160,4 +170,64 @@ class PasswordEncryptorTest {
 
 
 
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+        @Test
+        @DisplayName("Should time encrypt and matches separately")
+        void testEncryptAndMatches_ShouldRecordHashingTimers() {
+            // Given
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            Metrics.addRegistry(registry);
+            try {
+                // When
+                String encrypted = PasswordEncryptor.encrypt("testPassword123");
+                PasswordEncryptor.matches("testPassword123", encrypted);
+                PasswordEncryptor.matches("wrongPassword", encrypted);
+
+                // Then
+                assertEquals(1, registry.get("users.password.hashing").tag("operation", "encrypt").timer().count());
+                assertEquals(2, registry.get("users.password.hashing").tag("operation", "matches").timer().count());
+            } finally {
+                Metrics.removeRegistry(registry);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Flight Recorder Tests")
+    class FlightRecorderTests {
+        @TempDir
+        Path tempDir;
+
+        @Test
+        @DisplayName("Should emit a hash event with operation and cost")
+        void testEncryptAndMatches_WhenEventEnabled_ShouldEmitPasswordHashEvents() throws Exception {
+            // Given
+            List<RecordedEvent> events;
+            try (Recording recording = new Recording()) {
+                recording.enable(PasswordHashEvent.class);
+                recording.start();
+
+                // When
+                String encrypted = PasswordEncryptor.encrypt("testPassword123");
+                PasswordEncryptor.matches("testPassword123", encrypted);
+                recording.stop();
+                Path file = tempDir.resolve("hashing.jfr");
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file).stream()
+                        .filter(event -> event.getEventType().getName().equals("com.example.test.PasswordHash"))
+                        .toList();
+            }
+
+            // Then
+            assertEquals(2, events.size());
+            assertEquals("encrypt", events.get(0).getString("operation"));
+            assertEquals("matches", events.get(1).getString("operation"));
+            assertEquals(10, events.get(0).getInt("cost"));
+            assertEquals(10, events.get(1).getInt("cost"));
+            assertTrue(events.get(0).getDuration().toNanos() > 0);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.test.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestResourceMetricsFilterTest {
+    private static final int ALLOCATION = 4 * 1024 * 1024;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestResourceMetricsFilter filter = new RequestResourceMetricsFilter(meterRegistry);
+
+    // Kept in a field so the allocation cannot be optimized away
+    private byte[] sink;
+
+    @Test
+    void testDoFilter_ShouldRecordAllocationAndCpuPerEndpoint() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/preview");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/preview");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(404);
+
+        // When
+        filter.doFilter(request, response, (req, res) -> {
+            sink = new byte[ALLOCATION];
+            // Spin on this thread's CPU clock, not the wall clock, so a descheduled thread still burns the target
+            long end = THREADS.getCurrentThreadCpuTime() + TimeUnit.MILLISECONDS.toNanos(20);
+            while (THREADS.getCurrentThreadCpuTime() < end) {
+                sink[(int) (System.nanoTime() & (ALLOCATION - 1))]++;
+            }
+        });
+
+        // Then
+        DistributionSummary allocated = meterRegistry.get("users.request.allocated")
+                .tag("method", "GET").tag("uri", "/users/preview").tag("status", "404").summary();
+        Timer cpu = meterRegistry.get("users.request.cpu")
+                .tag("method", "GET").tag("uri", "/users/preview").tag("status", "404").timer();
+        assertEquals(1, allocated.count());
+        assertTrue(allocated.totalAmount() >= ALLOCATION, "allocated " + allocated.totalAmount());
+        assertTrue(allocated.totalAmount() < 2 * ALLOCATION, "allocated " + allocated.totalAmount());
+        assertTrue(cpu.totalTime(TimeUnit.MILLISECONDS) >= 20, "cpu " + cpu.totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testDoFilter_WithoutMatchedPattern_ShouldTagUnknown() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/nowhere");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, (req, res) -> {
+        });
+
+        // Then
+        assertEquals(1, meterRegistry.get("users.request.allocated").tag("uri", "UNKNOWN").summary().count());
+    }
+
+    @Test
+    void testDoFilter_OnRepeatedRequests_ShouldReuseMetersPerStatus() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/preview");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/preview");
+
+        // When
+        for (int status : new int[]{200, 200, 404}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            response.setStatus(status);
+            filter.doFilter(request, response, (req, res) -> {
+            });
+        }
+
+        // Then
+        assertEquals(2, meterRegistry.get("users.request.cpu").tag("status", "200").timer().count());
+        assertEquals(1, meterRegistry.get("users.request.cpu").tag("status", "404").timer().count());
+        assertEquals(2, meterRegistry.get("users.request.allocated").summaries().size());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.test.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+// Metrics export, and with it the prometheus endpoint, is off in tests unless asked for
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testActuator_HealthAndPrometheus_ShouldStayAnonymous() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk());
+    }
+
+    @Test
+    void testActuator_AdminEndpointsWithoutCredentials_ShouldBeRejected() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/actuator/latency")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/slowrequests")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/actuator/slowrequests")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testActuator_AdminEndpointsWithCredentials_ShouldBeServed() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/actuator/latency").with(httpBasic("user", "password"))).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/slowrequests").with(httpBasic("user", "password"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void testUsersApi_ShouldStayAnonymous() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/users/all")).andExpect(status().is2xxSuccessful());
+    }
+}
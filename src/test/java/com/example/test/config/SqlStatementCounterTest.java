@@ -0,0 +1,46 @@
+package com.example.test.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementCounterTest {
+
+    private final DataSourceProxyConfig.StatementCountingListener listener =
+            new DataSourceProxyConfig.StatementCountingListener();
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementCounter.stop();
+    }
+
+    @Test
+    void testAfterQuery_WhileCounting_ShouldCountEachExecution() {
+        // Given
+        SqlStatementCounter.start();
+
+        // When
+        listener.afterQuery(null, List.of());
+        listener.afterQuery(null, List.of());
+
+        // Then
+        assertEquals(2, SqlStatementCounter.stop());
+        assertEquals(0, SqlStatementCounter.current());
+    }
+
+    @Test
+    void testAfterQuery_OnThreadThatIsNotCounting_ShouldBeIgnored() throws Exception {
+        // Given
+        SqlStatementCounter.start();
+
+        // When
+        CompletableFuture.runAsync(() -> listener.afterQuery(null, List.of())).get();
+
+        // Then
+        assertEquals(0, SqlStatementCounter.current());
+    }
+}
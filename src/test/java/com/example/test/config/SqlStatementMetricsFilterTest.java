@@ -0,0 +1,92 @@
+package com.example.test.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementMetricsFilterTest {
+
+    private final DataSourceProxyConfig.StatementCountingListener listener =
+            new DataSourceProxyConfig.StatementCountingListener();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(meterRegistry);
+
+    @Test
+    void testDoFilter_ShouldRecordStatementsPerEndpoint() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/preview");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/preview");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            listener.afterQuery(null, List.of());
+            listener.afterQuery(null, List.of());
+        });
+
+        // Then
+        DistributionSummary summary = meterRegistry.get("users.sql.statements")
+                .tag("method", "GET").tag("uri", "/users/preview").summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+        assertEquals(0, SqlStatementCounter.current());
+    }
+
+    @Test
+    void testDoFilter_WithoutStatements_ShouldCountInLowestBucket() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/all");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/all");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+        });
+
+        // Then
+        CountAtBucket[] buckets = meterRegistry.get("users.sql.statements").tag("uri", "/users/all").summary()
+                .takeSnapshot().histogramCounts();
+        assertEquals(5, buckets.length);
+        assertEquals(1, buckets[0].bucket());
+        assertEquals(1, buckets[0].count());
+    }
+
+    @Test
+    void testDoFilter_CalledRepeatedly_ShouldReuseOneSummaryPerEndpoint() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/users/delete");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/delete");
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> listener.afterQuery(null, List.of()));
+        }
+
+        // Then
+        assertEquals(1, meterRegistry.get("users.sql.statements").summaries().size());
+        assertEquals(3, meterRegistry.get("users.sql.statements").summary().count());
+    }
+
+    @Test
+    void testDoFilter_WhenChainThrows_ShouldStillRecordAndRethrow() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/nowhere");
+
+        // When
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        // Then
+        assertEquals("boom", thrown.getMessage());
+        assertEquals(1, meterRegistry.get("users.sql.statements").tag("uri", "UNKNOWN").summary().count());
+    }
+}
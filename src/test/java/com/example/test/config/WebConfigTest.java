@@ -0,0 +1,181 @@
+package com.example.test.config;
+
+import com.example.test.controller.UserController;
+import com.example.test.dto.RequestDTO;
+import com.example.test.dto.ResponseDTO;
+import com.example.test.exceptions.GlobalExceptionHandler;
+import com.example.test.services.IdempotencyStore;
+import com.example.test.services.OffHeapUserStore;
+import com.example.test.services.UserCache;
+import com.example.test.services.UserChangeFeed;
+import com.example.test.services.UserListCache;
+import com.example.test.services.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebConfigTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private UserChangeFeed userChangeFeed;
+
+    private MockMvc mockMvc;
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    private final String email = "john@example.com";
+    private final ResponseDTO responseDTO = new ResponseDTO(UUID.randomUUID(), "John Doe", email, "hashedPassword");
+
+    @BeforeEach
+    void setUp() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new ByteArrayHttpMessageConverter());
+        converters.add(new ResourceHttpMessageConverter());
+        converters.add(new MappingJackson2HttpMessageConverter());
+        new WebConfig(new Jackson2ObjectMapperBuilder()).extendMessageConverters(converters);
+
+        UserController controller = new UserController(userService,
+                new IdempotencyStore(100, Duration.ofMinutes(5), Duration.ofSeconds(10)),
+                new UserListCache(jsonMapper, DataSize.ofMegabytes(1), new SimpleMeterRegistry()),
+                userChangeFeed,
+                new OffHeapUserStore(jsonMapper, DataSize.ofMegabytes(1), DataSize.ofMegabytes(1), Duration.ofMinutes(10),
+                        new UserCache(100, Duration.ofMinutes(5), Duration.ofMinutes(10), 1, 100, new SimpleMeterRegistry()),
+                        new SimpleMeterRegistry()));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setMessageConverters(converters.toArray(new HttpMessageConverter<?>[0]))
+                .build();
+    }
+
+    @Test
+    void testPreview_WithoutAcceptHeader_ShouldDefaultToJson() throws Exception {
+        // Given
+        when(userService.toPreviewUser(email)).thenReturn(responseDTO);
+
+        // When & Then
+        mockMvc.perform(get("/users/preview").param("email", email))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.email").value(email));
+    }
+
+    @Test
+    void testPreview_WithCborAccept_ShouldReturnCbor() throws Exception {
+        // Given
+        when(userService.toPreviewUser(email)).thenReturn(responseDTO);
+
+        // When
+        byte[] body = mockMvc.perform(get("/users/preview")
+                        .param("email", email)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        ResponseDTO decoded = cborMapper.readValue(body, ResponseDTO.class);
+        assertEquals(responseDTO.id(), decoded.id());
+        assertEquals(email, decoded.email());
+    }
+
+    @Test
+    void testPreview_WithSmileAccept_ShouldReturnSmile() throws Exception {
+        // Given
+        when(userService.toPreviewUser(email)).thenReturn(responseDTO);
+
+        // When
+        byte[] body = mockMvc.perform(get("/users/preview")
+                        .param("email", email)
+                        .accept(WebConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WebConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        ResponseDTO decoded = smileMapper.readValue(body, ResponseDTO.class);
+        assertEquals(responseDTO.id(), decoded.id());
+        assertEquals("John Doe", decoded.name());
+    }
+
+    @Test
+    void testAll_WithCborAccept_ShouldBypassJsonCache() throws Exception {
+        // Given
+        when(userService.toPreviewAllUsers()).thenReturn(List.of(responseDTO));
+
+        // When
+        byte[] body = mockMvc.perform(get("/users/all").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        ResponseDTO[] decoded = cborMapper.readValue(body, ResponseDTO[].class);
+        assertEquals(1, decoded.length);
+        assertEquals(responseDTO.id(), decoded[0].id());
+    }
+
+    @Test
+    void testCreate_WithCborBody_ShouldReadRequest() throws Exception {
+        // Given
+        RequestDTO dto = new RequestDTO("John Doe", email, "Password123!");
+        ArgumentCaptor<RequestDTO> captor = ArgumentCaptor.forClass(RequestDTO.class);
+
+        // When
+        mockMvc.perform(post("/users/create")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(dto)))
+                .andExpect(status().isCreated());
+
+        // Then
+        verify(userService).toSaveUser(captor.capture());
+        assertEquals(email, captor.getValue().getEmail());
+        assertEquals("Password123!", captor.getValue().getPassword());
+    }
+
+    @Test
+    void testCbor_ShouldBeSmallerThanJson() throws Exception {
+        // Given
+        List<ResponseDTO> users = List.of(
+                responseDTO,
+                new ResponseDTO(UUID.randomUUID(), "Jane Smith", "jane@example.com", "hashedPassword")
+        );
+
+        // When
+        int jsonSize = jsonMapper.writeValueAsBytes(users).length;
+        int cborSize = cborMapper.writeValueAsBytes(users).length;
+
+        // Then
+        assertTrue(cborSize < jsonSize, "CBOR " + cborSize + " bytes should be smaller than JSON " + jsonSize + " bytes");
+    }
+}
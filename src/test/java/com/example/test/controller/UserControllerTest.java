@@ -2,24 +2,44 @@ package com.example.test.controller;
 
 import com.example.test.dto.RequestDTO;
 import com.example.test.dto.ResponseDTO;
+import com.example.test.exceptions.DuplicateUserException;
 import com.example.test.exceptions.GlobalExceptionHandler;
+import com.example.test.services.IdempotencyStore;
+import com.example.test.services.OffHeapUserStore;
+import com.example.test.services.UserCache;
+import com.example.test.services.UserChangeFeed;
+import com.example.test.services.UserListCache;
 import com.example.test.services.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -32,6 +52,21 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserChangeFeed userChangeFeed;
+
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(100, Duration.ofMinutes(5), Duration.ofSeconds(10));
+
+    @Spy
+    private UserListCache userListCache = new UserListCache(new ObjectMapper(), DataSize.ofMegabytes(1), new SimpleMeterRegistry());
+
+    @Spy
+    private OffHeapUserStore offHeapUserStore = new OffHeapUserStore(new ObjectMapper(), DataSize.ofMegabytes(1),
+            DataSize.ofMegabytes(1), Duration.ofMinutes(10),
+            new UserCache(100, Duration.ofMinutes(5), Duration.ofMinutes(10), 1, 100, new SimpleMeterRegistry()),
+            new SimpleMeterRegistry());
+
     @InjectMocks
     private UserController userController;
 
@@ -61,6 +96,74 @@ class UserControllerTest {
         verify(userService).toSaveUser(any(RequestDTO.class));
     }
 
+    @Test
+    void testToCreateUser_WithRepeatedIdempotencyKey_ShouldReplayWithoutSavingAgain() throws Exception {
+        // Given
+        RequestDTO dto = new RequestDTO("John Doe", "john@example.com", "Password123!");
+        String body = objectMapper.writeValueAsString(dto);
+
+        // When & Then
+        mockMvc.perform(post("/users/create")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(UserController.IDEMPOTENT_REPLAYED_HEADER, "false"));
+
+        mockMvc.perform(post("/users/create")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(UserController.IDEMPOTENT_REPLAYED_HEADER, "true"));
+
+        verify(userService, times(1)).toSaveUser(any(RequestDTO.class));
+    }
+
+    @Test
+    void testToCreateUser_WithRepeatedIdempotencyKeyAfterConflict_ShouldReplay409() throws Exception {
+        // Given
+        RequestDTO dto = new RequestDTO("John Doe", "john@example.com", "Password123!");
+        String body = objectMapper.writeValueAsString(dto);
+        when(userService.toSaveUser(any(RequestDTO.class)))
+                .thenThrow(new DuplicateUserException("User with email john@example.com already exists"));
+
+        // When & Then
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/users/create")
+                            .header(UserController.IDEMPOTENCY_KEY_HEADER, "retry-2")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.message").value("User with email john@example.com already exists"));
+        }
+
+        verify(userService, times(1)).toSaveUser(any(RequestDTO.class));
+    }
+
+    @Test
+    void testToCreateUser_WithReusedIdempotencyKeyForDifferentBody_ShouldReturn400() throws Exception {
+        // Given
+        RequestDTO first = new RequestDTO("John Doe", "john@example.com", "Password123!");
+        RequestDTO second = new RequestDTO("Jane Doe", "jane@example.com", "Password123!");
+
+        mockMvc.perform(post("/users/create")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "retry-3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(first)))
+                .andExpect(status().isCreated());
+
+        // When & Then
+        mockMvc.perform(post("/users/create")
+                        .header(UserController.IDEMPOTENCY_KEY_HEADER, "retry-3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(second)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key has already been used for a different request"));
+
+        verify(userService, times(1)).toSaveUser(any(RequestDTO.class));
+    }
+
     @Test
     void testToUpdateUser_WithValidEmailAndData_ShouldReturn200() throws Exception {
         // Given
@@ -139,9 +242,54 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.name").value("John Doe"))
                 .andExpect(jsonPath("$.email").value(email));
 
+        // Off-heap misses load through UserCache, like every other preview
         verify(userService).toPreviewUser(email);
     }
 
+    @Test
+    void testToPreviewUser_WhenRequestedTwice_ShouldServeSecondFromOffHeapStore() throws Exception {
+        // Given
+        String email = "john@example.com";
+        ResponseDTO responseDTO = new ResponseDTO(UUID.randomUUID(), "John Doe", email, "hashedPassword");
+        when(userService.toPreviewUser(email)).thenReturn(responseDTO);
+        mockMvc.perform(get("/users/preview").param("email", email));
+
+        // When & Then
+        mockMvc.perform(get("/users/preview")
+                        .param("email", email)
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.name").value("John Doe"));
+
+        verify(userService, times(1)).toPreviewUser(email);
+    }
+
+    @Test
+    void testCheckUserExists_WhenUserExists_ShouldReturnOkWithoutBody() throws Exception {
+        // Given
+        String email = "john@example.com";
+        when(userService.userExists(email)).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(head("/users/preview").param("email", email))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+
+        verify(userService, never()).toPreviewUser(anyString());
+        verify(userService, never()).toPreviewUser(anyString());
+    }
+
+    @Test
+    void testCheckUserExists_WhenUserIsMissing_ShouldReturnNotFound() throws Exception {
+        // Given
+        when(userService.userExists("missing@example.com")).thenReturn(false);
+
+        // When & Then
+        mockMvc.perform(head("/users/preview").param("email", "missing@example.com"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testToPreviewUser_WithNullEmail_ShouldThrowIllegalArgumentException() throws Exception {
         // When & Then
@@ -149,6 +297,7 @@ class UserControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(userService, never()).toPreviewUser(anyString());
+        verify(userService, never()).toPreviewUser(anyString());
     }
 
     @Test
@@ -161,6 +310,7 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.error").value("Bad Request"));
 
         verify(userService, never()).toPreviewUser(anyString());
+        verify(userService, never()).toPreviewUser(anyString());
     }
 
     @Test
@@ -174,6 +324,7 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.message").value("Invalid email format"));
 
         verify(userService, never()).toPreviewUser(anyString());
+        verify(userService, never()).toPreviewUser(anyString());
     }
 
     @Test
@@ -209,6 +360,125 @@ class UserControllerTest {
         verify(userService).toPreviewAllUsers();
     }
 
+    @Test
+    void testToPreviewAllUsers_RepeatedRequests_ShouldServeCachedBody() throws Exception {
+        // Given
+        List<ResponseDTO> users = List.of(
+                new ResponseDTO(UUID.randomUUID(), "John Doe", "john@example.com", "hashedPassword1")
+        );
+        when(userService.toPreviewAllUsers()).thenReturn(users);
+
+        // When & Then
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/users/all"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].name").value("John Doe"));
+        }
+
+        verify(userService, times(1)).toPreviewAllUsers();
+    }
+
+    @Test
+    void testToPreviewAllUsers_WithGzipAcceptEncoding_ShouldReturnGzipBody() throws Exception {
+        // Given
+        List<ResponseDTO> users = List.of(
+                new ResponseDTO(UUID.randomUUID(), "John Doe", "john@example.com", "hashedPassword1")
+        );
+        when(userService.toPreviewAllUsers()).thenReturn(users);
+
+        // When
+        byte[] body = mockMvc.perform(get("/users/all")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(objectMapper.writeValueAsString(users), new String(gzip.readAllBytes()));
+        }
+    }
+
+    @Test
+    void testToPreviewAllUsers_WithGzipRefused_ShouldReturnPlainJson() throws Exception {
+        // Given
+        List<ResponseDTO> users = List.of(
+                new ResponseDTO(UUID.randomUUID(), "John Doe", "john@example.com", "hashedPassword1")
+        );
+        when(userService.toPreviewAllUsers()).thenReturn(users);
+
+        // When & Then
+        mockMvc.perform(get("/users/all")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$[0].name").value("John Doe"));
+    }
+
+    @Test
+    void testFingerprint_ShouldBeKeyedAndStableWithinProcess() throws Exception {
+        // Given
+        RequestDTO request = new RequestDTO("John Doe", "john@example.com", "Password123!");
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update("John Doe".getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update("john@example.com".getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update("Password123!".getBytes(StandardCharsets.UTF_8));
+        String unkeyed = HexFormat.of().formatHex(digest.digest());
+
+        // When
+        String fingerprint = UserController.fingerprint(request);
+
+        // Then
+        assertEquals(fingerprint, UserController.fingerprint(new RequestDTO("John Doe", "john@example.com", "Password123!")));
+        assertNotEquals(fingerprint, UserController.fingerprint(new RequestDTO("John Doe", "john@example.com", "Password124!")));
+        assertNotEquals(unkeyed, fingerprint);
+        assertEquals(64, fingerprint.length());
+    }
+
+    @Test
+    void testGzipCoding_ShouldHonourQValuesAndAliases() {
+        // Then
+        assertNull(UserController.gzipCoding(null));
+        assertNull(UserController.gzipCoding("deflate, br"));
+        assertNull(UserController.gzipCoding("gzip;q=0"));
+        assertNull(UserController.gzipCoding("GZIP ; Q=0.000"));
+        assertNull(UserController.gzipCoding("gzip;q=0, *"));
+        assertNull(UserController.gzipCoding("*;q=0"));
+        assertNull(UserController.gzipCoding("gzip;q=oops"));
+        assertNull(UserController.gzipCoding("notgzip, gzipped"));
+        assertEquals("gzip", UserController.gzipCoding("gzip, deflate"));
+        assertEquals("gzip", UserController.gzipCoding("deflate;q=1.0, gzip;q=0.5"));
+        assertEquals("gzip", UserController.gzipCoding("br, *;q=0.1"));
+        assertEquals("x-gzip", UserController.gzipCoding("x-gzip"));
+    }
+
+    @Test
+    void testToStreamChanges_WithLastEventId_ShouldResumeAfterId() throws Exception {
+        // Given
+        UserChangeFeed.EventId lastEventId = new UserChangeFeed.EventId(1700000000000L, 41);
+        when(userChangeFeed.subscribe(lastEventId)).thenReturn(new SseEmitter());
+
+        // When & Then
+        mockMvc.perform(get("/users/changes")
+                        .header(UserController.LAST_EVENT_ID_HEADER, "1700000000000-41"))
+                .andExpect(request().asyncStarted());
+
+        verify(userChangeFeed).subscribe(lastEventId);
+    }
+
+    @Test
+    void testToStreamChanges_WithInvalidLastEventId_ShouldReturn400() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/users/changes")
+                        .header(UserController.LAST_EVENT_ID_HEADER, "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid Last-Event-ID: abc"));
+
+        verify(userChangeFeed, never()).subscribe(any());
+    }
+
     @Test
     void testValidateEmailParameter_WithValidEmail_ShouldPass() throws Exception {
         // Given
@@ -235,6 +505,7 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.message").value("Email parameter is required and cannot be empty"));
 
         verify(userService, never()).toPreviewUser(anyString());
+        verify(userService, never()).toPreviewUser(anyString());
     }
 
     @Test
@@ -279,5 +550,6 @@ class UserControllerTest {
         }
 
         verify(userService, never()).toPreviewUser(anyString());
+        verify(userService, never()).toPreviewUser(anyString());
     }
 }
\ No newline at end of file
@@ -1,4 +1,7 @@
 package com.example.test.dto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.junit.jupiter.api.Test;
 
 import java.util.UUID;
@@ -7,18 +10,6 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class ResponseDTOTest {
 
-    @Test
-    void testDefaultConstructor() {
-        // When
-        ResponseDTO responseDTO = new ResponseDTO();
-
-        // Then
-        assertNull(responseDTO.getId());
-        assertNull(responseDTO.getName());
-        assertNull(responseDTO.getEmail());
-        assertNull(responseDTO.getPassword());
-    }
-
     @Test
     void testParameterizedConstructor_ShouldSetAllFields() {
         // Given
@@ -31,10 +22,10 @@ class ResponseDTOTest {
         ResponseDTO responseDTO = new ResponseDTO(id, name, email, password);
 
         // Then
-        assertEquals(id, responseDTO.getId());
-        assertEquals(name, responseDTO.getName());
-        assertEquals(email, responseDTO.getEmail());
-        assertEquals(password, responseDTO.getPassword());
+        assertEquals(id, responseDTO.id());
+        assertEquals(name, responseDTO.name());
+        assertEquals(email, responseDTO.email());
+        assertEquals(password, responseDTO.password());
     }
 
     @Test
@@ -43,37 +34,10 @@ class ResponseDTOTest {
         ResponseDTO responseDTO = new ResponseDTO(null, null, null, null);
 
         // Then
-        assertNull(responseDTO.getId());
-        assertNull(responseDTO.getName());
-        assertNull(responseDTO.getEmail());
-        assertNull(responseDTO.getPassword());
-    }
-
-    @Test
-    void testSetId() {
-        // Given
-        ResponseDTO responseDTO = new ResponseDTO();
-        UUID id = UUID.randomUUID();
-
-        // When
-        responseDTO.setId(id);
-
-        // Then
-        assertEquals(id, responseDTO.getId());
-    }
-
-    @Test
-    void testSetId_WithNull() {
-        // Given
-        ResponseDTO responseDTO = new ResponseDTO();
-        UUID initialId = UUID.randomUUID();
-        responseDTO.setId(initialId);
-
-        // When
-        responseDTO.setId(null);
-
-        // Then
-        assertNull(responseDTO.getId());
+        assertNull(responseDTO.id());
+        assertNull(responseDTO.name());
+        assertNull(responseDTO.email());
+        assertNull(responseDTO.password());
     }
 
     @Test
@@ -83,7 +47,7 @@ class ResponseDTOTest {
         ResponseDTO responseDTO = new ResponseDTO(id, "John", "john@example.com", "password");
 
         // When
-        UUID retrievedId = responseDTO.getId();
+        UUID retrievedId = responseDTO.id();
 
         // Then
         assertEquals(id, retrievedId);
@@ -91,28 +55,24 @@ class ResponseDTOTest {
     }
 
     @Test
-    void testInheritanceFromUserDTO() {
-        // Given
-        ResponseDTO responseDTO = new ResponseDTO();
-
+    void testIsImmutableRecord() {
         // Then
-        assertTrue(responseDTO instanceof UserDTO);
+        assertTrue(ResponseDTO.class.isRecord());
+        assertFalse(UserDTO.class.isAssignableFrom(ResponseDTO.class));
     }
 
     @Test
-    void testSettersFromParentClass() {
+    void testEqualsAndHashCode_ShouldUseAllComponents() {
         // Given
-        ResponseDTO responseDTO = new ResponseDTO();
-
-        // When
-        responseDTO.setName("Jane Doe");
-        responseDTO.setEmail("jane@example.com");
-        responseDTO.setPassword("newPassword123");
+        UUID id = UUID.randomUUID();
+        ResponseDTO first = new ResponseDTO(id, "John", "john@example.com", "password");
+        ResponseDTO second = new ResponseDTO(id, "John", "john@example.com", "password");
+        ResponseDTO other = new ResponseDTO(id, "Jane", "john@example.com", "password");
 
         // Then
-        assertEquals("Jane Doe", responseDTO.getName());
-        assertEquals("jane@example.com", responseDTO.getEmail());
-        assertEquals("newPassword123", responseDTO.getPassword());
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, other);
     }
 
     @Test
@@ -127,10 +87,10 @@ class ResponseDTOTest {
         ResponseDTO responseDTO = new ResponseDTO(id, name, email, password);
 
         // Then
-        assertEquals(id, responseDTO.getId());
-        assertEquals("", responseDTO.getName());
-        assertEquals("", responseDTO.getEmail());
-        assertEquals("", responseDTO.getPassword());
+        assertEquals(id, responseDTO.id());
+        assertEquals("", responseDTO.name());
+        assertEquals("", responseDTO.email());
+        assertEquals("", responseDTO.password());
     }
 
     @Test
@@ -145,50 +105,28 @@ class ResponseDTOTest {
         ResponseDTO responseDTO = new ResponseDTO(id, name, email, password);
 
         // Then
-        assertEquals(id, responseDTO.getId());
-        assertEquals(name, responseDTO.getName());
-        assertEquals(email, responseDTO.getEmail());
-        assertEquals(password, responseDTO.getPassword());
+        assertEquals(id, responseDTO.id());
+        assertEquals(name, responseDTO.name());
+        assertEquals(email, responseDTO.email());
+        assertEquals(password, responseDTO.password());
     }
 
     @Test
-    void testIdPersistence() {
+    void testJsonRoundTrip_WithBlackbird_ShouldKeepPropertyNames() throws Exception {
         // Given
-        UUID id1 = UUID.randomUUID();
-        UUID id2 = UUID.randomUUID();
-        ResponseDTO responseDTO = new ResponseDTO();
-
-        // When
-        responseDTO.setId(id1);
-        UUID firstRetrieval = responseDTO.getId();
-        responseDTO.setId(id2);
-        UUID secondRetrieval = responseDTO.getId();
-
-        // Then
-        assertEquals(id1, firstRetrieval);
-        assertEquals(id2, secondRetrieval);
-        assertNotEquals(firstRetrieval, secondRetrieval);
-    }
-
-    @Test
-    void testDefaultConstructor_ThenSetFields() {
-        // Given
-        ResponseDTO responseDTO = new ResponseDTO();
-        UUID id = UUID.randomUUID();
-        String name = "Test User";
-        String email = "test@example.com";
-        String password = "testPassword";
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new BlackbirdModule());
+        ResponseDTO responseDTO = new ResponseDTO(UUID.randomUUID(), "John Doe", "john@example.com", "hash");
 
         // When
-        responseDTO.setId(id);
-        responseDTO.setName(name);
-        responseDTO.setEmail(email);
-        responseDTO.setPassword(password);
+        String json = objectMapper.writeValueAsString(responseDTO);
+        JsonNode tree = objectMapper.readTree(json);
+        ResponseDTO decoded = objectMapper.readValue(json, ResponseDTO.class);
 
         // Then
-        assertEquals(id, responseDTO.getId());
-        assertEquals(name, responseDTO.getName());
-        assertEquals(email, responseDTO.getEmail());
-        assertEquals(password, responseDTO.getPassword());
+        assertEquals(responseDTO.id().toString(), tree.get("id").asText());
+        assertEquals("John Doe", tree.get("name").asText());
+        assertEquals("john@example.com", tree.get("email").asText());
+        assertEquals("hash", tree.get("password").asText());
+        assertEquals(responseDTO, decoded);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package com.example.test.exceptions;
 
 import com.example.test.dto.ErrorResponseDTO;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -88,6 +90,25 @@ class GlobalExceptionHandlerTest {
         assertNull(errorResponse.getDetails());
     }
 
+    @Test
+    void testHandleRequestInProgressException() {
+        // Given
+        String message = "A request with this Idempotency-Key is still in progress";
+        RequestInProgressException exception = new RequestInProgressException(message);
+
+        // When
+        ResponseEntity<ErrorResponseDTO> response = globalExceptionHandler.handleRequestInProgressException(exception, request);
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        ErrorResponseDTO errorResponse = response.getBody();
+        assertNotNull(errorResponse);
+        assertEquals(409, errorResponse.getStatus());
+        assertEquals("Conflict", errorResponse.getError());
+        assertEquals(message, errorResponse.getMessage());
+        assertEquals(testUri, errorResponse.getPath());
+    }
+
     @Test
     void testHandleValidationException() {
         // Given
@@ -308,4 +329,44 @@ class GlobalExceptionHandlerTest {
         assertEquals(1, details.size());
         assertEquals("password: Password is too weak", details.get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandleDuplicateUserException_ShouldCountErrorByTypeAndStatus() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            // When
+            globalExceptionHandler.handleDuplicateUserException(new DuplicateUserException("Duplicate"), request);
+
+            // Then
+            assertEquals(1.0, registry.get("users.errors")
+                    .tag("exception", "DuplicateUserException")
+                    .tag("status", "409")
+                    .counter().count());
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+
+    @Test
+    void testHandleUserNotFoundException_WithCachedCounter_ShouldStillReachRegistriesAddedLater() {
+        // Given
+        globalExceptionHandler.handleUserNotFoundException(new UserNotFoundException("Missing"), request);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            // When
+            globalExceptionHandler.handleUserNotFoundException(new UserNotFoundException("Missing"), request);
+            globalExceptionHandler.handleUserNotFoundException(new UserNotFoundException("Missing"), request);
+
+            // Then
+            assertEquals(2.0, registry.get("users.errors")
+                    .tag("exception", "UserNotFoundException")
+                    .tag("status", "404")
+                    .counter().count());
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+}
@@ -51,4 +51,24 @@ class UserExceptionTest {
         // Then
         assertTrue(exception instanceof RuntimeException);
     }
+
+    @Test
+    void testUserException_WithMessage_ShouldNotCaptureStackTrace() {
+        // When
+        TestUserException exception = new TestUserException("Test message");
+        exception.addSuppressed(new RuntimeException("Ignored"));
+
+        // Then
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(0, exception.getSuppressed().length);
+    }
+
+    @Test
+    void testUserException_WithCause_ShouldKeepStackTrace() {
+        // When
+        TestUserException exception = new TestUserException("Test message", new RuntimeException("Root cause"));
+
+        // Then
+        assertTrue(exception.getStackTrace().length > 0);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,336 @@
+package com.example.test.grpc;
+
+import com.example.test.dto.RequestDTO;
+import com.example.test.dto.ResponseDTO;
+import com.example.test.exceptions.DuplicateUserException;
+import com.example.test.exceptions.UserNotFoundException;
+import com.example.test.grpc.proto.CreateUserRequest;
+import com.example.test.grpc.proto.UpdateUserRequest;
+import com.example.test.grpc.proto.UserEmailRequest;
+import com.example.test.grpc.proto.UserReply;
+import com.example.test.grpc.proto.UsersGrpc;
+import com.example.test.model.User;
+import com.example.test.services.UserService;
+import com.google.protobuf.Empty;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserGrpcServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    private Server server;
+    private ManagedChannel channel;
+    private UsersGrpc.UsersBlockingStub stub;
+
+    private final UUID testId = UUID.randomUUID();
+    private final String testEmail = "john@example.com";
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        UserGrpcService service = new UserGrpcService(userService,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        server = InProcessServerBuilder.forName(name).directExecutor().addService(service).build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        stub = UsersGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testCreateUser_WithValidData_ShouldReturnCreatedUser() {
+        // Given
+        when(userService.toSaveUser(any(RequestDTO.class)))
+                .thenReturn(new User(testId, "John Doe", testEmail, "hashedPassword"));
+
+        // When
+        UserReply reply = stub.createUser(CreateUserRequest.newBuilder()
+                .setName("John Doe")
+                .setEmail(testEmail)
+                .setPassword("Password123!")
+                .build());
+
+        // Then
+        assertEquals(testId, toUuid(reply));
+        assertEquals("John Doe", reply.getName());
+        assertEquals(testEmail, reply.getEmail());
+        verify(userService).toSaveUser(any(RequestDTO.class));
+    }
+
+    @Test
+    void testCreateUser_WithInvalidData_ShouldReturnInvalidArgument() {
+        // When
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+                stub.createUser(CreateUserRequest.newBuilder()
+                        .setName("John Doe")
+                        .setEmail("invalid-email")
+                        .setPassword("weak")
+                        .build())
+        );
+
+        // Then
+        assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+        verify(userService, never()).toSaveUser(any());
+    }
+
+    @Test
+    void testCreateUser_WhenUserExists_ShouldReturnAlreadyExists() {
+        // Given
+        when(userService.toSaveUser(any(RequestDTO.class)))
+                .thenThrow(new DuplicateUserException("User with email " + testEmail + " already exists"));
+
+        // When
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+                stub.createUser(CreateUserRequest.newBuilder()
+                        .setName("John Doe")
+                        .setEmail(testEmail)
+                        .setPassword("Password123!")
+                        .build())
+        );
+
+        // Then
+        assertEquals(Status.Code.ALREADY_EXISTS, exception.getStatus().getCode());
+        assertEquals("User with email " + testEmail + " already exists", exception.getStatus().getDescription());
+    }
+
+    @Test
+    void testUpdateUser_WithValidData_ShouldReturnUpdatedUser() {
+        // Given
+        when(userService.toUpdateUser(eq(testEmail), any(RequestDTO.class)))
+                .thenReturn(new User(testId, "John Updated", "new@example.com", "hashedPassword"));
+
+        // When
+        UserReply reply = stub.updateUser(UpdateUserRequest.newBuilder()
+                .setEmail(testEmail)
+                .setName("John Updated")
+                .setNewEmail("new@example.com")
+                .setPassword("NewPassword123!")
+                .build());
+
+        // Then
+        assertEquals("new@example.com", reply.getEmail());
+        verify(userService).toUpdateUser(eq(testEmail), any(RequestDTO.class));
+    }
+
+    @Test
+    void testDeleteUser_WhenUserDoesNotExist_ShouldReturnNotFound() {
+        // Given
+        doThrow(new UserNotFoundException("User with email " + testEmail + " not found"))
+                .when(userService).toDeleteUser(testEmail);
+
+        // When
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+                stub.deleteUser(UserEmailRequest.newBuilder().setEmail(testEmail).build())
+        );
+
+        // Then
+        assertEquals(Status.Code.NOT_FOUND, exception.getStatus().getCode());
+    }
+
+    @Test
+    void testDeleteUser_WithBlankEmail_ShouldReturnInvalidArgument() {
+        // When
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+                stub.deleteUser(UserEmailRequest.newBuilder().setEmail(" ").build())
+        );
+
+        // Then
+        assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+        verify(userService, never()).toDeleteUser(anyString());
+    }
+
+    @Test
+    void testGetUser_WithMalformedEmail_ShouldReturnInvalidArgument() {
+        // When
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+                stub.getUser(UserEmailRequest.newBuilder().setEmail("invalid-email").build())
+        );
+
+        // Then
+        assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+        assertEquals("Invalid email format", exception.getStatus().getDescription());
+        verify(userService, never()).toPreviewUser(anyString());
+    }
+
+    @Test
+    void testUpdateUser_WithMalformedCurrentEmail_ShouldReturnInvalidArgument() {
+        // When
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+                stub.updateUser(UpdateUserRequest.newBuilder()
+                        .setEmail("john@")
+                        .setName("John Doe")
+                        .setNewEmail(testEmail)
+                        .setPassword("Password123!")
+                        .build())
+        );
+
+        // Then
+        assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+        verify(userService, never()).toUpdateUser(anyString(), any(RequestDTO.class));
+    }
+
+    @Test
+    void testGetUser_WhenUserExists_ShouldReturnUser() {
+        // Given
+        when(userService.toPreviewUser(testEmail))
+                .thenReturn(new ResponseDTO(testId, "John Doe", testEmail, "hashedPassword"));
+
+        // When
+        UserReply reply = stub.getUser(UserEmailRequest.newBuilder().setEmail(testEmail).build());
+
+        // Then
+        assertEquals(testId, toUuid(reply));
+        assertEquals(testEmail, reply.getEmail());
+    }
+
+    @Test
+    void testListUsers_ShouldStreamAllUsers() {
+        // Given
+        when(userService.toPreviewAllUsers()).thenReturn(List.of(
+                new ResponseDTO(UUID.randomUUID(), "John Doe", "john@example.com", "pass1"),
+                new ResponseDTO(UUID.randomUUID(), "Jane Smith", "jane@example.com", "pass2")
+        ));
+
+        // When
+        List<String> emails = new ArrayList<>();
+        Iterator<UserReply> replies = stub.listUsers(Empty.getDefaultInstance());
+        replies.forEachRemaining(reply -> emails.add(reply.getEmail()));
+
+        // Then
+        assertEquals(List.of("john@example.com", "jane@example.com"), emails);
+    }
+
+    @Test
+    void testListUsers_WhenClientIsNotReady_ShouldWaitForOnReady() {
+        // Given
+        when(userService.toPreviewAllUsers()).thenReturn(List.of(
+                new ResponseDTO(UUID.randomUUID(), "John Doe", "john@example.com", "pass1"),
+                new ResponseDTO(UUID.randomUUID(), "Jane Smith", "jane@example.com", "pass2"),
+                new ResponseDTO(UUID.randomUUID(), "Jim Beam", "jim@example.com", "pass3")
+        ));
+        FlowControlledObserver observer = new FlowControlledObserver(1);
+        UserGrpcService service = new UserGrpcService(userService,
+                Validation.buildDefaultValidatorFactory().getValidator());
+
+        // When
+        service.listUsers(Empty.getDefaultInstance(), observer);
+        List<String> beforeReady = List.copyOf(observer.emails);
+        observer.permits = 10;
+        observer.onReadyHandler.run();
+
+        // Then
+        assertEquals(List.of("john@example.com"), beforeReady);
+        assertEquals(List.of("john@example.com", "jane@example.com", "jim@example.com"), observer.emails);
+        assertTrue(observer.completed);
+    }
+
+    @Test
+    void testToStatus_WithUnexpectedException_ShouldReturnInternal() {
+        // When
+        Status status = UserGrpcService.toStatus(new IllegalStateException("boom"));
+
+        // Then
+        assertEquals(Status.Code.INTERNAL, status.getCode());
+        assertEquals("An unexpected error occurred", status.getDescription());
+    }
+
+    private static UUID toUuid(UserReply reply) {
+        ByteBuffer buffer = reply.getId().asReadOnlyByteBuffer();
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    // Ready for a fixed number of messages, like a transport whose outbound buffer fills up
+    private static final class FlowControlledObserver extends ServerCallStreamObserver<UserReply> {
+        private final List<String> emails = new ArrayList<>();
+        private int permits;
+        private boolean completed;
+        private Runnable onReadyHandler;
+
+        FlowControlledObserver(int permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public boolean isReady() {
+            return permits > 0;
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {
+            this.onReadyHandler = onReadyHandler;
+        }
+
+        @Override
+        public void onNext(UserReply value) {
+            assertTrue(permits > 0, "sent while not ready");
+            permits--;
+            emails.add(value.getEmail());
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            fail(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            completed = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void setOnCancelHandler(Runnable onCancelHandler) {
+        }
+
+        @Override
+        public void setCompression(String compression) {
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {
+        }
+
+        @Override
+        public void request(int count) {
+        }
+
+        @Override
+        public void setMessageCompression(boolean enable) {
+        }
+    }
+}
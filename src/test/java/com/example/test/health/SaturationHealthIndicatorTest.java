@@ -0,0 +1,149 @@
+package com.example.test.health;
+
+import com.example.test.services.UserCacheWarmer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SaturationHealthIndicatorTest {
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Mock
+    private UserCacheWarmer warmer;
+
+    private MeterRegistry meterRegistry;
+    private SaturationHealthIndicator indicator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        indicator = new SaturationHealthIndicator(meterRegistry, warmer, 1.0, 8, Duration.ofMillis(500), 0.9, 0.7,
+                Duration.ofSeconds(10));
+    }
+
+    private static SaturationHealthIndicator.Signals signals(double pool, int hashing, long p99Millis) {
+        return new SaturationHealthIndicator.Signals(pool, hashing, Duration.ofMillis(p99Millis), 0, true);
+    }
+
+    @Test
+    void testEvaluate_BelowAllLimits_ShouldBeUp() {
+        // When
+        Health health = indicator.evaluate(signals(0.5, 2, 100), 0);
+
+        // Then
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(true, health.getDetails().get("warmedUp"));
+    }
+
+    @Test
+    void testEvaluate_WhenAnySignalReachesLimit_ShouldBeOutOfService() {
+        // When & Then
+        assertEquals(Status.OUT_OF_SERVICE, indicator.evaluate(signals(1.0, 0, 0), 0).getStatus());
+        assertEquals(Status.OUT_OF_SERVICE, indicator.evaluate(signals(0, 8, 0), 0).getStatus());
+        assertEquals(Status.OUT_OF_SERVICE, indicator.evaluate(signals(0, 0, 600), 0).getStatus());
+    }
+
+    @Test
+    void testEvaluate_BetweenRecoveryAndLimit_ShouldStayOutOfService() {
+        // Given
+        indicator.evaluate(signals(1.0, 0, 0), 0);
+
+        // When
+        Health health = indicator.evaluate(signals(0.8, 0, 0), 60 * SECOND);
+
+        // Then
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+    }
+
+    @Test
+    void testEvaluate_BelowRecoveryBeforeHoldTime_ShouldStayOutOfService() {
+        // Given
+        indicator.evaluate(signals(1.0, 0, 0), 0);
+
+        // When
+        Health health = indicator.evaluate(signals(0.1, 0, 0), 5 * SECOND);
+
+        // Then
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+    }
+
+    @Test
+    void testEvaluate_BelowRecoveryAfterHoldTime_ShouldBeUpAgain() {
+        // Given
+        indicator.evaluate(signals(1.0, 0, 0), 0);
+
+        // When
+        Health health = indicator.evaluate(signals(0.5, 4, 300), 10 * SECOND);
+
+        // Then
+        assertEquals(Status.UP, health.getStatus());
+    }
+
+    @Test
+    void testEvaluate_BeforeWarmUpFinished_ShouldBeOutOfService() {
+        // When
+        Health health = indicator.evaluate(new SaturationHealthIndicator.Signals(0, 0, Duration.ZERO, 0, false), 0);
+
+        // Then
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+        assertEquals(false, health.getDetails().get("warmedUp"));
+    }
+
+    @Test
+    void testSample_ShouldReadPoolAndTomcatGaugesAndUsersP99() {
+        // Given
+        Gauge.builder("hikaricp.connections.active", () -> 6).register(meterRegistry);
+        Gauge.builder("hikaricp.connections.pending", () -> 2).register(meterRegistry);
+        Gauge.builder("hikaricp.connections.max", () -> 10).register(meterRegistry);
+        Gauge.builder("tomcat.threads.busy", () -> 50).register(meterRegistry);
+        Gauge.builder("tomcat.threads.config.max", () -> 200).register(meterRegistry);
+        Timer users = Timer.builder("http.server.requests").tag("uri", "/users/preview")
+                .publishPercentiles(0.99).register(meterRegistry);
+        Timer changes = Timer.builder("http.server.requests").tag("uri", "/users/changes")
+                .publishPercentiles(0.99).register(meterRegistry);
+        Timer other = Timer.builder("http.server.requests").tag("uri", "/actuator/health")
+                .publishPercentiles(0.99).register(meterRegistry);
+        users.record(Duration.ofMillis(200));
+        changes.record(Duration.ofMinutes(30));
+        other.record(Duration.ofSeconds(5));
+        when(warmer.isFinished()).thenReturn(true);
+
+        // When
+        SaturationHealthIndicator.Signals signals = indicator.sample();
+
+        // Then
+        assertEquals(0.8, signals.poolSaturation(), 1e-9);
+        assertEquals(0.25, signals.tomcatBusy(), 1e-9);
+        assertEquals(200, signals.p99().toMillis(), 25);
+        assertTrue(signals.warmedUp());
+    }
+
+    @Test
+    void testSample_WithoutPoolOrTomcatMetrics_ShouldReportNoSaturation() {
+        // Given
+        when(warmer.isFinished()).thenReturn(false);
+
+        // When
+        SaturationHealthIndicator.Signals signals = indicator.sample();
+
+        // Then
+        assertEquals(0, signals.poolSaturation());
+        assertEquals(0, signals.tomcatBusy());
+        assertEquals(Duration.ZERO, signals.p99());
+        assertFalse(signals.warmedUp());
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.test.integration;
+
+import com.example.test.dto.RequestDTO;
+import com.example.test.repository.UserRepository;
+import com.example.test.services.OffHeapUserStore;
+import com.example.test.services.UserCache;
+import com.example.test.services.UserIdIndex;
+import com.example.test.services.UserService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Maximum bytes the handling thread may allocate per request on the hot {@code /users} paths, as
+ * recorded by {@code RequestResourceMetricsFilter}. Each endpoint is warmed up first and the
+ * smallest of several measurements is compared, so class loading and JIT work do not count.
+ * The budgets leave generous headroom; a request that starts copying whole bodies or loading
+ * entities it does not need still trips them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AllocationBudgetTest {
+    private static final int WARM_UP = 50;
+    private static final int SAMPLES = 5;
+    private static final long PREVIEW_BUDGET = 256 * 1024;
+    private static final long CREATE_BUDGET = 2 * 1024 * 1024;
+    private static final String EMAIL = "allocation@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private OffHeapUserStore offHeapUserStore;
+
+    @Autowired
+    private UserIdIndex userIdIndex;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        userCache.invalidateAll();
+        offHeapUserStore.invalidateAll();
+        userIdIndex.rebuild();
+    }
+
+    private double allocated(String method, String uri) {
+        return meterRegistry.find("users.request.allocated")
+                .tag("method", method)
+                .tag("uri", uri)
+                .summaries().stream()
+                .mapToDouble(DistributionSummary::totalAmount)
+                .sum();
+    }
+
+    private long smallestAllocation(String method, String uri, IntFunction<MockHttpServletRequestBuilder> request)
+            throws Exception {
+        int sequence = 0;
+        for (int i = 0; i < WARM_UP; i++) {
+            mockMvc.perform(request.apply(sequence++)).andExpect(status().is2xxSuccessful());
+        }
+        long smallest = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            double before = allocated(method, uri);
+            mockMvc.perform(request.apply(sequence++)).andExpect(status().is2xxSuccessful());
+            smallest = Math.min(smallest, Math.round(allocated(method, uri) - before));
+        }
+        return smallest;
+    }
+
+    @Test
+    void testPreview_OnWarmCache_ShouldStayWithinAllocationBudget() throws Exception {
+        // Given
+        userService.toSaveUser(new RequestDTO("Allocation", EMAIL, "Password123!"));
+
+        // When
+        long allocated = smallestAllocation("GET", "/users/preview",
+                i -> get("/users/preview").param("email", EMAIL).accept(MediaType.APPLICATION_JSON));
+
+        // Then
+        assertTrue(allocated > 0, "allocation was not recorded");
+        assertTrue(allocated <= PREVIEW_BUDGET,
+                "GET /users/preview allocated " + allocated + " bytes, budget " + PREVIEW_BUDGET);
+    }
+
+    @Test
+    void testCreate_ShouldStayWithinAllocationBudget() throws Exception {
+        // When
+        long allocated = smallestAllocation("POST", "/users/create", i -> post("/users/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Allocation\",\"email\":\"allocation" + i + "@example.com\","
+                        + "\"password\":\"Password123!\"}"));
+
+        // Then
+        assertTrue(allocated > 0, "allocation was not recorded");
+        assertTrue(allocated <= CREATE_BUDGET,
+                "POST /users/create allocated " + allocated + " bytes, budget " + CREATE_BUDGET);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.test.integration;
+
+import com.example.test.TestApplication;
+import com.example.test.dto.RequestDTO;
+import com.example.test.exceptions.DuplicateUserException;
+import com.example.test.exceptions.UserNotFoundException;
+import com.example.test.services.UserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application instances on localhost sharing one database, with the JDBC invalidation
+ * transport. Writes on one node must become visible through the other node's caches quickly.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ClusterInvalidationIntegrationTest {
+    private static final Duration CONVERGENCE_BOUND = Duration.ofSeconds(5);
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private UserService serviceA;
+    private UserService serviceB;
+
+    @BeforeAll
+    void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+        serviceA = nodeA.getBean(UserService.class);
+        serviceB = nodeB.getBean(UserService.class);
+    }
+
+    @AfterAll
+    void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    // Command-line arguments, unlike builder properties, take precedence over application.properties
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(TestApplication.class)
+                .profiles("test")
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:cluster;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--server.port=0",
+                        "--grpc.server.enabled=false",
+                        "--users.invalidation.transport=jdbc",
+                        "--users.invalidation.batch-window=PT0.02S",
+                        "--users.invalidation.jdbc.poll-interval=PT0.05S",
+                        "--logging.level.com.example=INFO");
+    }
+
+    private static void awaitConvergence(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + CONVERGENCE_BOUND.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Nodes did not converge within " + CONVERGENCE_BOUND);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testUpdateOnOneNode_ShouldEvictCachedUserOnOtherNode() throws Exception {
+        // Given
+        String email = "cluster-update@example.com";
+        serviceA.toSaveUser(new RequestDTO("Before", email, "Password123!"));
+        assertEquals("Before", serviceB.toPreviewUser(email).name());
+
+        // When
+        serviceA.toUpdateUser(email, new RequestDTO("After", email, "Password123!"));
+
+        // Then
+        awaitConvergence(() -> "After".equals(serviceB.toPreviewUser(email).name()));
+    }
+
+    @Test
+    void testDeleteOnOneNode_ShouldEvictCachedUserOnOtherNode() throws Exception {
+        // Given
+        String email = "cluster-delete@example.com";
+        serviceA.toSaveUser(new RequestDTO("Doomed", email, "Password123!"));
+        assertNotNull(serviceB.toPreviewUser(email));
+
+        // When
+        serviceA.toDeleteUser(email);
+
+        // Then
+        awaitConvergence(() -> {
+            try {
+                serviceB.toPreviewUser(email);
+                return false;
+            } catch (UserNotFoundException e) {
+                return true;
+            }
+        });
+    }
+
+    @Test
+    void testCreateOnOneNode_ShouldBeSeenByDuplicateCheckOnOtherNode() throws Exception {
+        // Given
+        String email = "cluster-create@example.com";
+
+        // When
+        serviceA.toSaveUser(new RequestDTO("First", email, "Password123!"));
+
+        // Then
+        awaitConvergence(() -> {
+            try {
+                serviceB.userDoesExist(email);
+                return false;
+            } catch (DuplicateUserException e) {
+                return true;
+            }
+        });
+    }
+
+    @Test
+    void testCreateOnBothNodesBeforeInvalidation_ShouldRejectSecondCreate() {
+        // Given
+        String email = "cluster-race@example.com";
+        serviceA.toSaveUser(new RequestDTO("First", email, "Password123!"));
+
+        // When & Then: node B has not seen the batch yet; the unique email constraint still holds
+        assertThrows(DuplicateUserException.class,
+                () -> serviceB.toSaveUser(new RequestDTO("Second", email, "Password123!")));
+    }
+}
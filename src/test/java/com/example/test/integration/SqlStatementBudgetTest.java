@@ -0,0 +1,170 @@
+package com.example.test.integration;
+
+import com.example.test.dto.RequestDTO;
+import com.example.test.repository.UserRepository;
+import com.example.test.services.OffHeapUserStore;
+import com.example.test.services.UserCache;
+import com.example.test.services.UserIdIndex;
+import com.example.test.services.UserListCache;
+import com.example.test.services.UserService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Maximum number of SQL statements each {@code /users} endpoint may execute. A new query on one
+ * of these paths fails here instead of showing up as latency in production. Both the datasource
+ * proxy count and Hibernate's own statistics are checked.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlStatementBudgetTest {
+    private static final String EMAIL = "budget@example.com";
+    private static final String BODY = "{\"name\":\"Budget\",\"email\":\"" + EMAIL + "\",\"password\":\"Password123!\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private OffHeapUserStore offHeapUserStore;
+
+    @Autowired
+    private UserListCache userListCache;
+
+    @Autowired
+    private UserIdIndex userIdIndex;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        resetCaches();
+        userIdIndex.rebuild();
+    }
+
+    private void resetCaches() {
+        userCache.invalidateAll();
+        offHeapUserStore.invalidateAll();
+        userListCache.invalidate();
+    }
+
+    private void givenUser() {
+        userService.toSaveUser(new RequestDTO("Budget", EMAIL, "Password123!"));
+        resetCaches();
+    }
+
+    private double recorded(String method, String uri) {
+        DistributionSummary summary = meterRegistry.find("users.sql.statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
+
+    private void assertWithinBudget(int budget, String method, String uri, MockHttpServletRequestBuilder request)
+            throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        double recordedBefore = recorded(method, uri);
+        long preparedBefore = statistics.getPrepareStatementCount();
+
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+
+        long statements = Math.round(recorded(method, uri) - recordedBefore);
+        long prepared = statistics.getPrepareStatementCount() - preparedBefore;
+        assertTrue(statements <= budget, method + " " + uri + " executed " + statements + " statements, budget " + budget);
+        assertTrue(prepared <= budget, method + " " + uri + " prepared " + prepared + " statements, budget " + budget);
+    }
+
+    @Test
+    void testCreate_WithoutInvalidationTransport_ShouldLookUpTheEmailOnceAndInsert() throws Exception {
+        // When & Then: a single instance cannot trust its index for creates made elsewhere
+        assertWithinBudget(2, "POST", "/users/create",
+                post("/users/create").contentType(MediaType.APPLICATION_JSON).content(BODY));
+    }
+
+    @Test
+    void testPreview_OnColdCache_ShouldRunOneSelect() throws Exception {
+        // Given
+        givenUser();
+
+        // When & Then
+        assertWithinBudget(1, "GET", "/users/preview", get("/users/preview").param("email", EMAIL));
+    }
+
+    @Test
+    void testPreview_OnWarmCache_ShouldNotTouchTheDatabase() throws Exception {
+        // Given
+        givenUser();
+        mockMvc.perform(get("/users/preview").param("email", EMAIL));
+
+        // When & Then
+        assertWithinBudget(0, "GET", "/users/preview", get("/users/preview").param("email", EMAIL));
+    }
+
+    @Test
+    void testExistenceProbe_ShouldNotTouchTheDatabase() throws Exception {
+        // Given
+        givenUser();
+
+        // When & Then
+        assertWithinBudget(0, "HEAD", "/users/preview", head("/users/preview").param("email", EMAIL));
+    }
+
+    @Test
+    void testUpdate_ShouldSelectAndUpdateOnce() throws Exception {
+        // Given
+        givenUser();
+
+        // When & Then
+        assertWithinBudget(2, "PUT", "/users/update",
+                put("/users/update").param("email", EMAIL).contentType(MediaType.APPLICATION_JSON).content(BODY));
+    }
+
+    @Test
+    void testDelete_ShouldSelectAndDeleteOnce() throws Exception {
+        // Given
+        givenUser();
+
+        // When & Then
+        assertWithinBudget(2, "DELETE", "/users/delete", delete("/users/delete").param("email", EMAIL));
+    }
+
+    @Test
+    void testPreviewAll_ShouldRunOneSelect() throws Exception {
+        // Given
+        givenUser();
+
+        // When & Then
+        assertWithinBudget(1, "GET", "/users/all", get("/users/all"));
+    }
+}
@@ -3,6 +3,10 @@ package com.example.test.integration;
 import com.example.test.dto.RequestDTO;
 import com.example.test.model.User;
 import com.example.test.repository.UserRepository;
+import com.example.test.services.OffHeapUserStore;
+import com.example.test.services.UserCache;
+import com.example.test.services.UserIdIndex;
+import com.example.test.services.UserListCache;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import org.junit.jupiter.api.*;
@@ -26,18 +30,39 @@ class UserControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserListCache userListCache;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private OffHeapUserStore offHeapUserStore;
+
+    @Autowired
+    private UserIdIndex userIdIndex;
+
     @BeforeEach
     void setUp() {
         RestAssured.port = port;
         RestAssured.baseURI = "http://localhost";
         // ✅ Clean database before each test
         userRepository.deleteAll();
+        // Writes through the repository bypass UserService, so caches are reset explicitly
+        userListCache.invalidate();
+        userCache.invalidateAll();
+        offHeapUserStore.invalidateAll();
+        userIdIndex.rebuild();
     }
 
     @AfterEach
     void tearDown() {
         // ✅ Clean up after each test
         userRepository.deleteAll();
+        userListCache.invalidate();
+        userCache.invalidateAll();
+        offHeapUserStore.invalidateAll();
+        userIdIndex.rebuild();
     }
 
     @Test
@@ -0,0 +1,88 @@
+package com.example.test.jfr;
+
+import com.example.test.model.User;
+import com.example.test.repository.UserRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryQueryEventAspectTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @TempDir
+    private Path tempDir;
+
+    private UserRepository proxied() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(userRepository);
+        factory.addInterface(UserRepository.class);
+        factory.addAspect(new RepositoryQueryEventAspect());
+        return factory.getProxy();
+    }
+
+    @Test
+    void testRecord_WhenEventEnabled_ShouldEmitQueryNameAndRowCount() throws Exception {
+        // Given
+        UserRepository repository = proxied();
+        User user = new User(UUID.randomUUID(), "John Doe", "john@example.com", "hash");
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user));
+        when(userRepository.findAllEmails()).thenReturn(List.of("a@example.com", "b@example.com", "c@example.com"));
+
+        // When
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(RepositoryQueryEvent.class);
+            recording.start();
+            repository.findByEmail("john@example.com");
+            repository.findAllEmails();
+            recording.stop();
+            Path file = tempDir.resolve("queries.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("com.example.test.RepositoryQuery"))
+                    .toList();
+        }
+
+        // Then
+        assertEquals(2, events.size());
+        assertEquals("UserRepository.findByEmail", events.get(0).getString("query"));
+        assertEquals(1, events.get(0).getLong("rows"));
+        assertEquals("UserRepository.findAllEmails", events.get(1).getString("query"));
+        assertEquals(3, events.get(1).getLong("rows"));
+    }
+
+    @Test
+    void testRecord_WhenEventDisabled_ShouldStillReturnResult() {
+        // Given
+        UserRepository repository = proxied();
+        when(userRepository.count()).thenReturn(7L);
+
+        // When & Then
+        assertEquals(7L, repository.count());
+    }
+
+    @Test
+    void testRowsOf_ShouldCountByResultShape() {
+        // When & Then
+        assertEquals(0, RepositoryQueryEvent.rowsOf(null));
+        assertEquals(0, RepositoryQueryEvent.rowsOf(Optional.empty()));
+        assertEquals(2, RepositoryQueryEvent.rowsOf(List.of(1, 2)));
+        assertEquals(1, RepositoryQueryEvent.rowsOf(42L));
+    }
+}
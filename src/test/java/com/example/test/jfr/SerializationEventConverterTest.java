@@ -0,0 +1,72 @@
+package com.example.test.jfr;
+
+import com.example.test.dto.ResponseDTO;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializationEventConverterTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final SerializationEventConverter converter =
+            new SerializationEventConverter(new MappingJackson2HttpMessageConverter());
+    private final ResponseDTO responseDTO =
+            new ResponseDTO(UUID.randomUUID(), "John Doe", "john@example.com", "hash");
+
+    @Test
+    void testWrite_WhenEventEnabled_ShouldRecordBytesWritten() throws Exception {
+        // Given
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        // When
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(SerializationEvent.class);
+            recording.start();
+            converter.write(responseDTO, ResponseDTO.class, MediaType.APPLICATION_JSON, output);
+            recording.stop();
+            Path file = tempDir.resolve("serialization.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("com.example.test.Serialization"))
+                    .toList();
+        }
+
+        // Then
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("http", event.getString("source"));
+        assertEquals("ResponseDTO", event.getString("type"));
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, event.getString("format"));
+        assertEquals(output.getBodyAsBytes().length, event.getLong("bytes"));
+    }
+
+    @Test
+    void testWrite_WhenEventDisabled_ShouldWriteSameBody() throws Exception {
+        // Given
+        MockHttpOutputMessage wrapped = new MockHttpOutputMessage();
+        MockHttpOutputMessage plain = new MockHttpOutputMessage();
+
+        // When
+        converter.write(responseDTO, ResponseDTO.class, MediaType.APPLICATION_JSON, wrapped);
+        new MappingJackson2HttpMessageConverter().write(responseDTO, ResponseDTO.class, MediaType.APPLICATION_JSON, plain);
+
+        // Then
+        assertArrayEquals(plain.getBodyAsBytes(), wrapped.getBodyAsBytes());
+        assertTrue(converter.canWrite(ResponseDTO.class, MediaType.APPLICATION_JSON));
+        assertEquals(converter.getDelegate().getSupportedMediaTypes(), converter.getSupportedMediaTypes());
+    }
+}
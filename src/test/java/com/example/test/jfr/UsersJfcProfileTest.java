@@ -0,0 +1,56 @@
+package com.example.test.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsersJfcProfileTest {
+
+    private static Configuration profile() throws Exception {
+        try (Reader reader = new InputStreamReader(Objects.requireNonNull(
+                UsersJfcProfileTest.class.getResourceAsStream("/jfr/users.jfc")), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    @Test
+    void testProfile_ShouldEnableEveryApplicationEvent() throws Exception {
+        // When
+        Map<String, String> settings = profile().getSettings();
+
+        // Then
+        List<Class<? extends Event>> events = List.of(PasswordHashEvent.class, RepositoryQueryEvent.class, SerializationEvent.class);
+        for (Class<? extends Event> event : events) {
+            String name = EventType.getEventType(event).getName();
+            assertEquals("true", settings.get(name + "#enabled"), name);
+            assertEquals("0 ms", settings.get(name + "#threshold"), name);
+        }
+    }
+
+    @Test
+    void testEvents_WithoutProfile_ShouldBeDisabled() {
+        // When & Then
+        assertFalse(EventType.getEventType(PasswordHashEvent.class).isEnabled());
+        assertFalse(EventType.getEventType(RepositoryQueryEvent.class).isEnabled());
+        assertFalse(EventType.getEventType(SerializationEvent.class).isEnabled());
+    }
+
+    @Test
+    void testCostOf_ShouldReadBcryptCost() {
+        // When & Then
+        assertEquals(10, PasswordHashEvent.costOf("$2a$10$abcdefghijklmnopqrstuv"));
+        assertEquals(12, PasswordHashEvent.costOf("$2y$12$abcdefghijklmnopqrstuv"));
+        assertEquals(-1, PasswordHashEvent.costOf("plain"));
+        assertEquals(-1, PasswordHashEvent.costOf(null));
+    }
+}
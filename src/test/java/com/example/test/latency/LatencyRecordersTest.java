@@ -0,0 +1,104 @@
+package com.example.test.latency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyRecordersTest {
+    private static final String ENDPOINT = "GET /users/preview";
+
+    private final LatencyRecorders recorders =
+            new LatencyRecorders(Duration.ofSeconds(5), List.of(Duration.ofSeconds(10), Duration.ofMinutes(1)));
+
+    private void record(int count, Duration latency) {
+        for (int i = 0; i < count; i++) {
+            recorders.record(ENDPOINT, latency.toNanos());
+        }
+    }
+
+    @Test
+    void testSnapshot_ShouldReportPercentilesOfFinishedIntervals() {
+        // Given
+        record(990, Duration.ofMillis(2));
+        record(10, Duration.ofMillis(400));
+        recorders.rotate();
+
+        // When
+        LatencyRecorders.Percentiles percentiles = recorders.snapshot(0).get(ENDPOINT).get("PT10S");
+
+        // Then
+        assertEquals(1000, percentiles.count());
+        assertEquals(2.0, percentiles.p50(), 0.05);
+        assertEquals(2.0, percentiles.p99(), 0.05);
+        assertEquals(400.0, percentiles.p999(), 4.0);
+        assertEquals(400.0, percentiles.max(), 4.0);
+    }
+
+    @Test
+    void testSnapshot_ShouldNotIncludeTheOpenInterval() {
+        // Given
+        record(5, Duration.ofMillis(2));
+
+        // When
+        LatencyRecorders.Percentiles percentiles = recorders.snapshot(0).get(ENDPOINT).get("PT10S");
+
+        // Then
+        assertEquals(0, percentiles.count());
+    }
+
+    @Test
+    void testSnapshot_ShouldSlideIntervalsOutOfShorterWindows() {
+        // Given
+        record(100, Duration.ofMillis(300));
+        recorders.rotate();
+        for (int i = 0; i < 2; i++) {
+            record(100, Duration.ofMillis(1));
+            recorders.rotate();
+        }
+
+        // When
+        Map<String, LatencyRecorders.Percentiles> windows = recorders.snapshot(0).get(ENDPOINT);
+
+        // Then
+        assertEquals(200, windows.get("PT10S").count());
+        assertEquals(1.0, windows.get("PT10S").max(), 0.05);
+        assertEquals(300, windows.get("PT1M").count());
+        assertEquals(300.0, windows.get("PT1M").max(), 3.0);
+    }
+
+    @Test
+    void testSnapshot_WithExpectedInterval_ShouldCorrectForCoordinatedOmission() {
+        // Given
+        record(99, Duration.ofMillis(1));
+        record(1, Duration.ofSeconds(1));
+        recorders.rotate();
+
+        // When
+        LatencyRecorders.Percentiles raw = recorders.snapshot(0).get(ENDPOINT).get("PT10S");
+        LatencyRecorders.Percentiles corrected = recorders.snapshot(10_000).get(ENDPOINT).get("PT10S");
+
+        // Then
+        assertEquals(100, raw.count());
+        assertEquals(1.0, raw.p90(), 0.05);
+        assertTrue(corrected.count() > 150, "count " + corrected.count());
+        assertTrue(corrected.p90() > 100, "p90 " + corrected.p90());
+    }
+
+    @Test
+    void testRecord_AboveHighestTrackable_ShouldClampInsteadOfFailing() {
+        // Given
+        record(1, Duration.ofMinutes(5));
+        recorders.rotate();
+
+        // When
+        LatencyRecorders.Percentiles percentiles = recorders.snapshot(0).get(ENDPOINT).get("PT10S");
+
+        // Then
+        assertEquals(1, percentiles.count());
+        assertEquals(60_000.0, percentiles.max(), 600.0);
+    }
+}
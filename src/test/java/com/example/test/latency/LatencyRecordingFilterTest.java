@@ -0,0 +1,55 @@
+package com.example.test.latency;
+
+import com.example.test.controller.UserController;
+import com.example.test.services.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class LatencyRecordingFilterTest {
+    private final LatencyRecorders recorders = new LatencyRecorders(Duration.ofSeconds(5), List.of(Duration.ofSeconds(5)));
+    private final LatencyRecordingFilter filter = new LatencyRecordingFilter(recorders);
+
+    private static MockHttpServletRequest request(Object handler) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/preview");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/preview");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, new HandlerMethod(handler,
+                handler.getClass().getMethod("toString")));
+        return request;
+    }
+
+    @Test
+    void testDoFilter_ForUserControllerHandler_ShouldRecordByMethodAndPattern() throws Exception {
+        // Given
+        UserController controller = new UserController(mock(UserService.class), null, null, null, null);
+
+        // When
+        filter.doFilter(request(controller), new MockHttpServletResponse(), (req, res) -> {
+        });
+        recorders.rotate();
+
+        // Then
+        assertEquals(1, recorders.snapshot(0).get("GET /users/preview").get("PT5S").count());
+    }
+
+    @Test
+    void testDoFilter_ForOtherHandlers_ShouldRecordNothing() throws Exception {
+        // When
+        filter.doFilter(request(new Object()), new MockHttpServletResponse(), (req, res) -> {
+        });
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(),
+                (req, res) -> {
+                });
+
+        // Then
+        assertTrue(recorders.snapshot(0).isEmpty());
+    }
+}
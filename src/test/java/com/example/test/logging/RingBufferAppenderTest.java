@@ -0,0 +1,131 @@
+package com.example.test.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class RingBufferAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private RingBufferAppender appender;
+
+    RingBufferAppenderTest() {
+        // A bare context has no MDC adapter, and preparing an event reads the MDC
+        context.setMDCAdapter(new LogbackMDCAdapter());
+    }
+
+    @AfterEach
+    void tearDown() {
+        appender.stop();
+        context.stop();
+    }
+
+    private void start(int bufferSize, Appender<ILoggingEvent> target) {
+        target.setContext(context);
+        target.start();
+        appender = new RingBufferAppender();
+        appender.setContext(context);
+        appender.setName("async");
+        appender.setBufferSize(bufferSize);
+        appender.addAppender(target);
+        appender.start();
+    }
+
+    private LoggingEvent event(String message) {
+        return new LoggingEvent(getClass().getName(), context.getLogger("test"), Level.INFO, message, null, null);
+    }
+
+    @Test
+    void testAppend_ShouldDeliverEventsInOrderOnWriterThread() {
+        // Given
+        ListAppender<ILoggingEvent> target = new ListAppender<>();
+        start(1024, target);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend(event("message " + i));
+        }
+        appender.stop();
+
+        // Then
+        assertEquals(100, target.list.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("message " + i, target.list.get(i).getFormattedMessage());
+        }
+        // Captured on the logging thread, not the writer
+        assertEquals(Thread.currentThread().getName(), target.list.get(0).getThreadName());
+    }
+
+    @Test
+    void testAppend_WhenBufferIsFull_ShouldDropAndCountInsteadOfBlocking() throws Exception {
+        // Given
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> written = new CopyOnWriteArrayList<>();
+        start(4, new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.add(event.getFormattedMessage());
+            }
+        });
+        appender.doAppend(event("stuck"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        long droppedBefore = RingBufferAppender.dropped();
+
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event("message " + i));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+        appender.stop();
+
+        // Then
+        assertTrue(elapsedMillis < 1000, "appending blocked for " + elapsedMillis + " ms");
+        assertEquals(6, RingBufferAppender.dropped() - droppedBefore);
+        assertEquals(List.of("stuck", "message 0", "message 1", "message 2", "message 3"), written);
+    }
+
+    @Test
+    void testAppend_WhenEventCannotBePrepared_ShouldCountAsDropped() {
+        // Given
+        ListAppender<ILoggingEvent> target = new ListAppender<>();
+        start(16, target);
+        ILoggingEvent broken = mock(ILoggingEvent.class);
+        doThrow(new IllegalStateException("no MDC")).when(broken).prepareForDeferredProcessing();
+        long droppedBefore = RingBufferAppender.dropped();
+
+        // When
+        appender.doAppend(broken);
+        appender.doAppend(event("after"));
+        appender.stop();
+
+        // Then
+        assertEquals(1, RingBufferAppender.dropped() - droppedBefore);
+        assertEquals(1, target.list.size());
+        assertEquals("after", target.list.get(0).getFormattedMessage());
+    }
+}
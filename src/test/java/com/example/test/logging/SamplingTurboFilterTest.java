@@ -0,0 +1,114 @@
+package com.example.test.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final ListAppender<ILoggingEvent> output = new ListAppender<>();
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @BeforeEach
+    void setUp() {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setSampling("com.example.chatty=0, com.example.chatty.important=1");
+        filter.setMaxPerSecond(3);
+        filter.setClock(now::get);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        output.setContext(context);
+        output.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.DEBUG);
+        root.addAppender(output);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.stop();
+    }
+
+    private long written(String message) {
+        return output.list.stream().filter(event -> event.getFormattedMessage().equals(message)).count();
+    }
+
+    @Test
+    void testDecide_WithZeroRate_ShouldDropOnlyEventsBelowWarn() {
+        // Given
+        Logger chatty = context.getLogger("com.example.chatty.Service");
+        long sampledBefore = SamplingTurboFilter.sampledOut();
+
+        // When
+        chatty.debug("debug {}", 1);
+        chatty.info("info {}", 1);
+        chatty.warn("warn {}", 1);
+
+        // Then
+        assertEquals(0, written("debug 1"));
+        assertEquals(0, written("info 1"));
+        assertEquals(1, written("warn 1"));
+        assertEquals(2, SamplingTurboFilter.sampledOut() - sampledBefore);
+        assertTrue(chatty.isDebugEnabled());
+    }
+
+    @Test
+    void testDecide_ShouldUseLongestMatchingPrefix() {
+        // When
+        context.getLogger("com.example.chatty.important.Audit").debug("audit {}", 1);
+        context.getLogger("com.example.quiet.Service").debug("quiet {}", 1);
+
+        // Then
+        assertEquals(1, written("audit 1"));
+        assertEquals(1, written("quiet 1"));
+    }
+
+    @Test
+    void testDecide_ShouldCapEachStatementPerSecond() {
+        // Given
+        Logger logger = context.getLogger("com.example.Handler");
+        long cappedBefore = SamplingTurboFilter.rateCapped();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            logger.error("User not found: {}", "a" + i);
+        }
+        logger.error("Other statement");
+        now.addAndGet(1000);
+        logger.error("User not found: {}", "later");
+
+        // Then
+        assertEquals(3, output.list.stream().filter(event -> event.getMessage().equals("User not found: {}")
+                && !event.getFormattedMessage().endsWith("later")).count());
+        assertEquals(1, written("Other statement"));
+        assertEquals(1, written("User not found: later"));
+        assertEquals(7, SamplingTurboFilter.rateCapped() - cappedBefore);
+    }
+
+    @Test
+    void testDecide_BelowLoggerLevel_ShouldNotCountAsDropped() {
+        // Given
+        Logger chatty = context.getLogger("com.example.chatty.Service");
+        chatty.setLevel(Level.WARN);
+        long sampledBefore = SamplingTurboFilter.sampledOut();
+
+        // When
+        chatty.debug("debug {}", 2);
+
+        // Then
+        assertEquals(0, written("debug 2"));
+        assertEquals(sampledBefore, SamplingTurboFilter.sampledOut());
+    }
+}
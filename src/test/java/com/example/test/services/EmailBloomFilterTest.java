@@ -0,0 +1,122 @@
+package com.example.test.services;
+
+import com.example.test.events.UserChangedEvent;
+import com.example.test.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailBloomFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private MeterRegistry meterRegistry;
+    private EmailBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new EmailBloomFilter(userRepository, 1000, 0.01, Duration.ofHours(1), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        filter.shutdown();
+    }
+
+    @Test
+    void testMightContain_BeforeFirstBuild_ShouldReportEveryEmail() {
+        // Then
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("unknown@example.com"));
+    }
+
+    @Test
+    void testRebuild_ShouldContainAllRegisteredEmails() {
+        // Given
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            emails.add("user" + i + "@example.com");
+        }
+        when(userRepository.count()).thenReturn((long) emails.size());
+        when(userRepository.findAllEmails()).thenReturn(emails);
+
+        // When
+        filter.rebuild();
+
+        // Then
+        assertTrue(filter.isReady());
+        emails.forEach(email -> assertTrue(filter.mightContain(email)));
+        assertEquals(1.0, meterRegistry.get("users.email.filter.rebuild").timer().count());
+    }
+
+    @Test
+    void testMightContain_ForUnknownEmails_ShouldStayNearConfiguredFpp() {
+        // Given
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            emails.add("user" + i + "@example.com");
+        }
+        when(userRepository.count()).thenReturn(0L);
+        when(userRepository.findAllEmails()).thenReturn(emails);
+        filter.rebuild();
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("unknown" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 300, "False positives: " + falsePositives);
+        assertTrue(filter.expectedFpp() < 0.03);
+    }
+
+    @Test
+    void testOnUserChanged_ShouldAddCreatedAndUpdatedEmails() {
+        // Given
+        when(userRepository.findAllEmails()).thenReturn(List.of());
+        filter.rebuild();
+
+        // When
+        filter.onUserChanged(new UserChangedEvent(UserChangedEvent.Type.CREATED, UUID.randomUUID(),
+                "new@example.com", null));
+        filter.onUserChanged(new UserChangedEvent(UserChangedEvent.Type.UPDATED, UUID.randomUUID(),
+                "renamed@example.com", "new@example.com"));
+
+        // Then
+        assertTrue(filter.mightContain("new@example.com"));
+        assertTrue(filter.mightContain("renamed@example.com"));
+    }
+
+    @Test
+    void testRebuild_WhenRepositoryFails_ShouldKeepPreviousFilter() {
+        // Given
+        when(userRepository.findAllEmails())
+                .thenReturn(List.of("john@example.com"))
+                .thenThrow(new RuntimeException("Database error"));
+        filter.rebuild();
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> filter.rebuild());
+        assertTrue(filter.isReady());
+        assertTrue(filter.mightContain("john@example.com"));
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.test.services;
+
+import com.example.test.exceptions.DuplicateUserException;
+import com.example.test.exceptions.RequestInProgressException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyStore store;
+    private AtomicInteger invocations;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(100, Duration.ofMinutes(5), Duration.ofSeconds(10));
+        invocations = new AtomicInteger();
+    }
+
+    @Test
+    void testExecute_FirstAttempt_ShouldRunActionAndNotReplay() {
+        // When
+        boolean replayed = store.execute("key-1", "fp", invocations::incrementAndGet);
+
+        // Then
+        assertFalse(replayed);
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    void testExecute_Retry_ShouldReplayWithoutRunningAction() {
+        // Given
+        store.execute("key-1", "fp", invocations::incrementAndGet);
+
+        // When
+        boolean replayed = store.execute("key-1", "fp", invocations::incrementAndGet);
+
+        // Then
+        assertTrue(replayed);
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    void testExecute_RetryAfterUserException_ShouldReplayFailure() {
+        // Given
+        DuplicateUserException failure = new DuplicateUserException("User with email a@b.com already exists");
+        assertThrows(DuplicateUserException.class, () -> store.execute("key-1", "fp", () -> {
+            invocations.incrementAndGet();
+            throw failure;
+        }));
+
+        // When & Then
+        DuplicateUserException replayed = assertThrows(DuplicateUserException.class, () ->
+                store.execute("key-1", "fp", invocations::incrementAndGet)
+        );
+        assertSame(failure, replayed);
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    void testExecute_RetryAfterUnexpectedException_ShouldRunActionAgain() {
+        // Given
+        assertThrows(IllegalStateException.class, () -> store.execute("key-1", "fp", () -> {
+            throw new IllegalStateException("Database unavailable");
+        }));
+
+        // When
+        boolean replayed = store.execute("key-1", "fp", invocations::incrementAndGet);
+
+        // Then
+        assertFalse(replayed);
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    void testExecute_SameKeyDifferentFingerprint_ShouldThrowIllegalArgumentException() {
+        // Given
+        store.execute("key-1", "fp-1", invocations::incrementAndGet);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () ->
+                store.execute("key-1", "fp-2", invocations::incrementAndGet)
+        );
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    void testExecute_WithTooLongKey_ShouldThrowIllegalArgumentException() {
+        // Given
+        String key = "k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> store.execute(key, "fp", invocations::incrementAndGet));
+        assertEquals(0, invocations.get());
+    }
+
+    @Test
+    void testExecute_AfterTtl_ShouldRunActionAgain() {
+        // Given
+        store = new IdempotencyStore(100, Duration.ZERO, Duration.ofSeconds(10));
+        store.execute("key-1", "fp", invocations::incrementAndGet);
+
+        // When
+        boolean replayed = store.execute("key-1", "fp", invocations::incrementAndGet);
+
+        // Then
+        assertFalse(replayed);
+        assertEquals(2, invocations.get());
+    }
+
+    @Test
+    void testExecute_BeyondCapacity_ShouldEvictOldestEntries() {
+        // Given
+        store = new IdempotencyStore(2, Duration.ofMinutes(5), Duration.ofSeconds(10));
+
+        // When
+        store.execute("key-1", "fp", invocations::incrementAndGet);
+        store.execute("key-2", "fp", invocations::incrementAndGet);
+        store.execute("key-3", "fp", invocations::incrementAndGet);
+
+        // Then
+        assertEquals(2, store.size());
+        assertFalse(store.execute("key-1", "fp", invocations::incrementAndGet));
+        assertTrue(store.execute("key-3", "fp", invocations::incrementAndGet));
+    }
+
+    @Test
+    void testExecute_ConcurrentDuplicate_ShouldWaitForFirstAttempt() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Boolean> first = executor.submit(() -> store.execute("key-1", "fp", () -> {
+                invocations.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // When
+            Future<Boolean> second = executor.submit(() -> store.execute("key-1", "fp", invocations::incrementAndGet));
+            release.countDown();
+
+            // Then
+            assertFalse(first.get(5, TimeUnit.SECONDS));
+            assertTrue(second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, invocations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecute_BeyondCapacityWithRunningAttempt_ShouldKeepRunningEntry() throws Exception {
+        // Given
+        store = new IdempotencyStore(1, Duration.ofMinutes(5), Duration.ofSeconds(10));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Boolean> first = executor.submit(() -> store.execute("key-1", "fp", () -> {
+                invocations.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // When
+            store.execute("key-2", "fp", invocations::incrementAndGet);
+            Future<Boolean> retry = executor.submit(() -> store.execute("key-1", "fp", invocations::incrementAndGet));
+            release.countDown();
+
+            // Then
+            assertFalse(first.get(5, TimeUnit.SECONDS));
+            assertTrue(retry.get(5, TimeUnit.SECONDS));
+            assertEquals(2, invocations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecute_DuplicateOfSlowAttempt_ShouldThrowRequestInProgressException() throws Exception {
+        // Given
+        store = new IdempotencyStore(100, Duration.ofMinutes(5), Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<Boolean> first = executor.submit(() -> store.execute("key-1", "fp", () -> {
+                invocations.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // When & Then
+            assertThrows(RequestInProgressException.class, () ->
+                    store.execute("key-1", "fp", invocations::incrementAndGet)
+            );
+            release.countDown();
+            assertFalse(first.get(5, TimeUnit.SECONDS));
+            assertEquals(1, invocations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.test.services;
+
+import com.example.test.dto.ResponseDTO;
+import com.example.test.events.UserChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapUserStoreTest {
+
+    // The test records serialize to 130-150 bytes, which lands them in the 256-byte class
+    private static final int SLOT = 256;
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MeterRegistry meterRegistry;
+    private UserCache userCache;
+    private OffHeapUserStore store;
+    private AtomicInteger loads;
+    private final AtomicLong nanos = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(100, Duration.ofMinutes(5), TTL, 1, 100, meterRegistry);
+        store = new OffHeapUserStore(objectMapper, DataSize.ofMegabytes(1), DataSize.ofKilobytes(256), TTL, userCache,
+                nanos::get, meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    private Function<String, ResponseDTO> loader(String name) {
+        return email -> {
+            loads.incrementAndGet();
+            return new ResponseDTO(UUID.randomUUID(), name, email, "hash");
+        };
+    }
+
+    @Test
+    void testGet_OnMiss_ShouldLoadOnceAndServeStoredJson() throws Exception {
+        // When
+        byte[] first = store.get("john@example.com", loader("John Doe"));
+        byte[] second = store.get("john@example.com", loader("Someone Else"));
+
+        // Then
+        assertEquals(1, loads.get());
+        assertArrayEquals(first, second);
+        ResponseDTO stored = objectMapper.readValue(second, ResponseDTO.class);
+        assertEquals("John Doe", stored.name());
+        assertEquals("john@example.com", stored.email());
+        assertEquals(1.0, meterRegistry.get("users.offheap.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void testOpen_OnHit_ShouldStreamStoredJsonWithoutLoading() throws Exception {
+        // Given
+        byte[] stored = store.get("john@example.com", loader("John Doe"));
+
+        // When
+        ByteArrayInputStream first = store.open("john@example.com", loader("Someone Else"));
+        byte[] firstJson = first.readAllBytes();
+        ByteArrayInputStream second = store.open("john@example.com", loader("Someone Else"));
+
+        // Then
+        assertEquals(1, loads.get());
+        assertArrayEquals(stored, firstJson);
+        assertArrayEquals(stored, second.readAllBytes());
+    }
+
+    @Test
+    void testOpen_OnMiss_ShouldLoadAndStore() throws Exception {
+        // When
+        byte[] json = store.open("john@example.com", loader("John Doe")).readAllBytes();
+
+        // Then
+        assertEquals(1, loads.get());
+        assertTrue(store.contains("john@example.com"));
+        assertEquals("John Doe", objectMapper.readValue(json, ResponseDTO.class).name());
+    }
+
+    @Test
+    void testGet_ShouldPackRecordsIntoSizeClassSlots() {
+        // When
+        for (int i = 0; i < 1000; i++) {
+            store.get("user" + i + "@example.com", loader("User " + i));
+        }
+
+        // Then
+        assertEquals(1000, store.size());
+        assertEquals(DataSize.ofKilobytes(256).toBytes(), store.allocatedBytes());
+        assertEquals(1000L * SLOT, store.usedBytes());
+    }
+
+    @Test
+    void testOnUserChanged_ShouldEvictCurrentAndPreviousEmail() {
+        // Given
+        store.get("old@example.com", loader("Old"));
+        store.get("new@example.com", loader("New"));
+        store.get("other@example.com", loader("Other"));
+
+        // When
+        store.onUserChanged(new UserChangedEvent(UserChangedEvent.Type.UPDATED, UUID.randomUUID(),
+                "new@example.com", "old@example.com"));
+
+        // Then
+        assertFalse(store.contains("old@example.com"));
+        assertFalse(store.contains("new@example.com"));
+        assertTrue(store.contains("other@example.com"));
+    }
+
+    @Test
+    void testInvalidate_ShouldReuseFreedSlot() {
+        // Given
+        store.get("a@example.com", loader("A"));
+        long allocated = store.allocatedBytes();
+        long used = store.usedBytes();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            store.invalidate(List.of("a@example.com"));
+            store.get("a@example.com", loader("A"));
+        }
+
+        // Then
+        assertEquals(allocated, store.allocatedBytes());
+        assertEquals(used, store.usedBytes());
+    }
+
+    @Test
+    void testGet_WhenInvalidatedDuringLoad_ShouldNotStoreStaleRecord() {
+        // When
+        store.get("a@example.com", email -> {
+            store.invalidate(List.of(email));
+            return new ResponseDTO(UUID.randomUUID(), "Stale", email, "hash");
+        });
+
+        // Then
+        assertFalse(store.contains("a@example.com"));
+    }
+
+    @Test
+    void testGet_WhenBudgetIsFull_ShouldEvictOldestRecordOfTheSameClass() {
+        // Given
+        OffHeapUserStore small = new OffHeapUserStore(objectMapper, DataSize.ofKilobytes(64),
+                DataSize.ofKilobytes(64), TTL, userCache, nanos::get, meterRegistry);
+        int capacity = OffHeapUserStore.PAGE_SIZE / SLOT;
+        for (int i = 0; i < capacity; i++) {
+            small.get("user" + i + "@example.com", loader("User " + i));
+        }
+
+        // When
+        small.get("late@example.com", loader("Late"));
+
+        // Then
+        assertEquals(capacity, small.size());
+        assertFalse(small.contains("user0@example.com"));
+        assertTrue(small.contains("user1@example.com"));
+        assertTrue(small.contains("late@example.com"));
+        assertEquals(1.0, meterRegistry.get("users.offheap.evictions").counter().count());
+    }
+
+    @Test
+    void testGet_WithRecordLargerThanBiggestSlot_ShouldServeWithoutStoring() {
+        // Given
+        String name = "x".repeat(OffHeapUserStore.MAX_SLOT);
+
+        // When
+        byte[] json = store.get("big@example.com", loader(name));
+
+        // Then
+        assertTrue(new String(json, StandardCharsets.UTF_8).contains(name));
+        assertFalse(store.contains("big@example.com"));
+        assertEquals(1.0, meterRegistry.get("users.offheap.rejected").counter().count());
+    }
+
+    @Test
+    void testInvalidateAll_ShouldDropEveryRecordAndKeepSegments() {
+        // Given
+        store.get("a@example.com", loader("A"));
+        store.get("b@example.com", loader("B"));
+
+        // When
+        store.invalidateAll();
+
+        // Then
+        assertEquals(0, store.size());
+        assertEquals(0, store.usedBytes());
+        assertFalse(store.contains("a@example.com"));
+        assertEquals(DataSize.ofKilobytes(256).toBytes(), store.allocatedBytes());
+    }
+
+    @Test
+    void testGet_AfterHardTtl_ShouldReloadAndOverwriteRecord() throws Exception {
+        // Given
+        store.get("john@example.com", loader("Before"));
+        nanos.addAndGet(TTL.toNanos() - 1);
+        store.get("john@example.com", loader("Unused"));
+
+        // When
+        nanos.incrementAndGet();
+        assertFalse(store.contains("john@example.com"));
+        byte[] json = store.get("john@example.com", loader("After"));
+
+        // Then
+        assertEquals(2, loads.get());
+        assertEquals("After", objectMapper.readValue(json, ResponseDTO.class).name());
+        assertTrue(store.contains("john@example.com"));
+        assertEquals(1, store.size());
+        assertEquals(SLOT, store.usedBytes());
+        assertEquals(2.0, meterRegistry.get("users.offheap.expirations").counter().count());
+    }
+
+    @Test
+    void testConstructor_WithNonPositiveTtl_ShouldReject() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapUserStore(objectMapper, DataSize.ofMegabytes(1),
+                DataSize.ofKilobytes(256), Duration.ZERO, userCache, nanos::get, meterRegistry));
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.test.services;
+
+import com.example.test.dto.ResponseDTO;
+import com.example.test.events.UserChangedEvent;
+import com.example.test.exceptions.UserNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private UserCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserCache(100, Duration.ofMinutes(5), Duration.ofMinutes(10), 1, 100, meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    private Function<String, ResponseDTO> loader() {
+        return email -> {
+            loads.incrementAndGet();
+            return new ResponseDTO(UUID.randomUUID(), "John Doe", email, "hash");
+        };
+    }
+
+    @Test
+    void testGet_WhenCached_ShouldNotCallLoaderAgain() {
+        // When
+        ResponseDTO first = cache.get("john@example.com", loader());
+        ResponseDTO second = cache.get("john@example.com", loader());
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertTrue(cache.contains("john@example.com"));
+    }
+
+    @Test
+    void testGet_WhenLoaderThrows_ShouldPropagateAndNotCache() {
+        // Given
+        Function<String, ResponseDTO> failing = email -> {
+            throw new UserNotFoundException("User with email " + email + " not found");
+        };
+
+        // When & Then
+        assertThrows(UserNotFoundException.class, () -> cache.get("missing@example.com", failing));
+        assertFalse(cache.contains("missing@example.com"));
+    }
+
+    @Test
+    void testGet_WithNullEmail_ShouldBypassCache() {
+        // When
+        cache.get(null, loader());
+        cache.get(null, loader());
+
+        // Then
+        assertEquals(2, loads.get());
+        assertFalse(cache.contains(null));
+    }
+
+    @Test
+    void testOnUserChanged_ShouldEvictOldAndNewEmail() {
+        // Given
+        cache.get("old@example.com", loader());
+        cache.get("new@example.com", loader());
+        cache.get("other@example.com", loader());
+
+        // When
+        cache.onUserChanged(new UserChangedEvent(UserChangedEvent.Type.UPDATED, UUID.randomUUID(),
+                "new@example.com", "old@example.com"));
+
+        // Then
+        assertFalse(cache.contains("old@example.com"));
+        assertFalse(cache.contains("new@example.com"));
+        assertTrue(cache.contains("other@example.com"));
+    }
+
+    @Test
+    void testMetrics_ShouldExposeHitsMissesAndHitRatio() {
+        // Given
+        cache.get("john@example.com", loader());
+        cache.get("john@example.com", loader());
+
+        // Then
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", UserCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", UserCache.CACHE_NAME)
+                .tag("result", "miss").functionCounter().count());
+        assertEquals(0.5, meterRegistry.get("users.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void testWarm_ShouldAddMissingEntriesWithoutReplacingExistingOnes() {
+        // Given
+        ResponseDTO existing = cache.get("john@example.com", loader());
+
+        // When
+        int added = cache.warm(() -> List.of(
+                new ResponseDTO(UUID.randomUUID(), "John Doe", "john@example.com", "hash"),
+                new ResponseDTO(UUID.randomUUID(), "Jane Smith", "jane@example.com", "hash")));
+
+        // Then
+        assertEquals(1, added);
+        assertSame(existing, cache.get("john@example.com", loader()));
+        assertTrue(cache.contains("jane@example.com"));
+    }
+
+    @Test
+    void testWarm_WhenInvalidatedWhileLoading_ShouldDropBatch() {
+        // When
+        int added = cache.warm(() -> {
+            cache.onUserChanged(new UserChangedEvent(UserChangedEvent.Type.UPDATED, UUID.randomUUID(),
+                    "jane@example.com", null));
+            return List.of(new ResponseDTO(UUID.randomUUID(), "Jane Smith", "jane@example.com", "stale"));
+        });
+
+        // Then
+        assertEquals(0, added);
+        assertFalse(cache.contains("jane@example.com"));
+    }
+
+    private UserCache refreshingCache(AtomicLong nanos, List<Runnable> refreshes) {
+        return new UserCache(100, Duration.ofMinutes(1), Duration.ofMinutes(10), refreshes::add, nanos::get,
+                meterRegistry);
+    }
+
+    @Test
+    void testGet_PastSoftTtl_ShouldServeStaleEntryAndRefreshInBackground() {
+        // Given
+        AtomicLong nanos = new AtomicLong();
+        List<Runnable> refreshes = new ArrayList<>();
+        UserCache refreshing = refreshingCache(nanos, refreshes);
+        ResponseDTO stale = refreshing.get("john@example.com", loader());
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        // When
+        ResponseDTO served = refreshing.get("john@example.com", loader());
+        refreshing.get("john@example.com", loader());
+        refreshes.forEach(Runnable::run);
+
+        // Then
+        assertSame(stale, served);
+        assertEquals(1, refreshes.size());
+        assertEquals(2, loads.get());
+        assertNotSame(stale, refreshing.get("john@example.com", loader()));
+        assertEquals(1.0, meterRegistry.get("users.cache.refreshes").tag("result", "success").counter().count());
+        assertEquals(2, meterRegistry.get("users.cache.staleness").timer().count());
+    }
+
+    @Test
+    void testRefresh_WhenDatabaseFails_ShouldKeepServingStaleEntryUntilHardTtl() {
+        // Given
+        AtomicLong nanos = new AtomicLong();
+        List<Runnable> refreshes = new ArrayList<>();
+        UserCache refreshing = refreshingCache(nanos, refreshes);
+        ResponseDTO stale = refreshing.get("john@example.com", loader());
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        // When
+        refreshing.get("john@example.com", email -> {
+            throw new IllegalStateException("Connection refused");
+        });
+        refreshes.forEach(Runnable::run);
+
+        // Then
+        assertSame(stale, refreshing.get("john@example.com", loader()));
+        assertEquals(1.0, meterRegistry.get("users.cache.refreshes").tag("result", "failure").counter().count());
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(10));
+        assertFalse(refreshing.contains("john@example.com"));
+    }
+
+    @Test
+    void testRefresh_WhenUserWasDeleted_ShouldDropEntry() {
+        // Given
+        AtomicLong nanos = new AtomicLong();
+        List<Runnable> refreshes = new ArrayList<>();
+        UserCache refreshing = refreshingCache(nanos, refreshes);
+        refreshing.get("john@example.com", loader());
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        // When
+        refreshing.get("john@example.com", email -> {
+            throw new UserNotFoundException("User with email " + email + " not found");
+        });
+        refreshes.forEach(Runnable::run);
+
+        // Then
+        assertFalse(refreshing.contains("john@example.com"));
+        assertEquals(1.0, meterRegistry.get("users.cache.refreshes").tag("result", "removed").counter().count());
+    }
+
+    @Test
+    void testRefresh_WhenInvalidatedWhileLoading_ShouldNotReinstallOldValue() {
+        // Given
+        AtomicLong nanos = new AtomicLong();
+        List<Runnable> refreshes = new ArrayList<>();
+        UserCache refreshing = refreshingCache(nanos, refreshes);
+        refreshing.get("john@example.com", loader());
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        // When
+        refreshing.get("john@example.com", email -> {
+            refreshing.invalidate(List.of(email));
+            return new ResponseDTO(UUID.randomUUID(), "Stale", email, "hash");
+        });
+        refreshes.forEach(Runnable::run);
+
+        // Then
+        assertFalse(refreshing.contains("john@example.com"));
+    }
+
+    @Test
+    void testConstructor_WithSoftTtlAboveHardTtl_ShouldReject() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new UserCache(100, Duration.ofMinutes(10),
+                Duration.ofMinutes(1), 1, 10, meterRegistry));
+    }
+}
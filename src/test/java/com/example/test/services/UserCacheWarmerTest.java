@@ -0,0 +1,155 @@
+package com.example.test.services;
+
+import com.example.test.dto.ResponseDTO;
+import com.example.test.model.User;
+import com.example.test.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheWarmerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @TempDir
+    private Path tempDir;
+
+    private MeterRegistry meterRegistry;
+    private UserCache userCache;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(1000, Duration.ofMinutes(5), Duration.ofMinutes(10), 1, 100, meterRegistry);
+        users = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            users.add(new User(UUID.randomUUID(), "User " + i, "user" + i + "@example.com", "hash"));
+        }
+    }
+
+    private UserCacheWarmer newWarmer(Duration budget, String hotKeysFile) {
+        return new UserCacheWarmer(userRepository, new UserMapper(), userCache, true, budget,
+                2, 2, 100, hotKeysFile, meterRegistry);
+    }
+
+    private void givenIdsInTableOrder() {
+        when(userRepository.findIdsOrderById(any(Limit.class))).thenReturn(users.stream().map(User::getId).toList());
+    }
+
+    @Test
+    void testWarmUp_WithoutHotKeys_ShouldScanTableInParallelChunks() {
+        // Given
+        givenIdsInTableOrder();
+        when(userRepository.findByIdBetween(any(UUID.class), any(UUID.class))).thenAnswer(invocation -> {
+            List<UUID> ids = users.stream().map(User::getId).toList();
+            int from = ids.indexOf(invocation.<UUID>getArgument(0));
+            int to = ids.indexOf(invocation.<UUID>getArgument(1));
+            return users.subList(from, to + 1);
+        });
+
+        // When
+        UserCacheWarmer.Result result = newWarmer(Duration.ofSeconds(5), "").warmUp();
+
+        // Then
+        assertTrue(result.complete());
+        assertEquals(5, result.targeted());
+        assertEquals(5, result.loaded());
+        assertEquals(1.0, result.coverage());
+        verify(userRepository, times(3)).findByIdBetween(any(UUID.class), any(UUID.class));
+        // Keyset ranges: no count query and no OFFSET pages
+        verify(userRepository, never()).count();
+        verify(userRepository, never()).findAll(any(Pageable.class));
+        users.forEach(user -> assertTrue(userCache.contains(user.getEmail())));
+        assertEquals(1.0, meterRegistry.get("users.cache.warmup.coverage").gauge().value());
+    }
+
+    @Test
+    void testIsFinished_ShouldTurnTrueOnceWarmUpReturns() {
+        // Given
+        when(userRepository.findIdsOrderById(any(Limit.class))).thenReturn(List.of());
+        UserCacheWarmer warmer = newWarmer(Duration.ofSeconds(5), "");
+        assertFalse(warmer.isFinished());
+
+        // When
+        warmer.warmUp();
+
+        // Then
+        assertTrue(warmer.isFinished());
+    }
+
+    @Test
+    void testWarmUp_WithHotKeysFile_ShouldLoadOnlyThoseEmails() throws Exception {
+        // Given
+        Path hotKeys = tempDir.resolve("hot-keys.txt");
+        Files.write(hotKeys, List.of("user1@example.com", "user3@example.com", "gone@example.com"));
+        // Chained rather than varargs, which would create a generic List<User>[]
+        when(userRepository.findByEmailIn(anyCollection()))
+                .thenReturn(List.of(users.get(1)))
+                .thenReturn(List.of(users.get(3)));
+
+        // When
+        UserCacheWarmer.Result result = newWarmer(Duration.ofSeconds(5), hotKeys.toString()).warmUp();
+
+        // Then
+        assertEquals(3, result.targeted());
+        assertEquals(2, result.loaded());
+        assertTrue(userCache.contains("user1@example.com"));
+        assertTrue(userCache.contains("user3@example.com"));
+        assertFalse(userCache.contains("user0@example.com"));
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void testWarmUp_WhenBudgetRunsOut_ShouldReturnIncompleteResult() {
+        // Given
+        givenIdsInTableOrder();
+        when(userRepository.findByIdBetween(any(UUID.class), any(UUID.class))).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return List.<User>of();
+        });
+
+        // When
+        long start = System.nanoTime();
+        UserCacheWarmer.Result result = newWarmer(Duration.ofMillis(100), "").warmUp();
+
+        // Then
+        assertFalse(result.complete());
+        assertEquals(0, result.loaded());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2_000);
+    }
+
+    @Test
+    void testSaveHotKeys_ShouldWriteCachedEmails() throws Exception {
+        // Given
+        Path hotKeys = tempDir.resolve("hot-keys.txt");
+        userCache.get("user0@example.com", email -> new ResponseDTO(UUID.randomUUID(), "User 0", email, "hash"));
+
+        // When
+        newWarmer(Duration.ofSeconds(5), hotKeys.toString()).saveHotKeys();
+
+        // Then
+        assertEquals(List.of("user0@example.com"), Files.readAllLines(hotKeys));
+    }
+}
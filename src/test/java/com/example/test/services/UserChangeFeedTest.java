@@ -0,0 +1,182 @@
+package com.example.test.services;
+
+import com.example.test.events.UserChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserChangeFeedTest {
+
+    private MeterRegistry meterRegistry;
+    private UserChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        feed = newFeed(4, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    private UserChangeFeed newFeed(int bufferSize, int backlog) {
+        return new UserChangeFeed(new ObjectMapper(), bufferSize, backlog,
+                Duration.ofMinutes(1), Duration.ofHours(1), meterRegistry);
+    }
+
+    private static UserChangedEvent created(String email) {
+        return new UserChangedEvent(UserChangedEvent.Type.CREATED, UUID.randomUUID(), email, null);
+    }
+
+    @Test
+    void testOnUserChanged_ShouldDeliverEventToSubscriber() throws Exception {
+        // Given
+        RecordingEmitter emitter = new RecordingEmitter(1);
+        feed.subscribe(null, emitter);
+
+        // When
+        feed.onUserChanged(created("john@example.com"));
+
+        // Then
+        assertTrue(emitter.received.await(5, TimeUnit.SECONDS));
+        String frame = emitter.frames.get(0);
+        assertTrue(frame.contains("id:" + feed.epoch() + "-1"));
+        assertTrue(frame.contains("event:created"));
+        assertTrue(frame.contains("john@example.com"));
+    }
+
+    @Test
+    void testSubscribe_WithLastEventId_ShouldReplayMissedEvents() throws Exception {
+        // Given
+        feed.onUserChanged(created("a@example.com"));
+        feed.onUserChanged(created("b@example.com"));
+        feed.onUserChanged(created("c@example.com"));
+        RecordingEmitter emitter = new RecordingEmitter(2);
+
+        // When
+        feed.subscribe(new UserChangeFeed.EventId(feed.epoch(), 1), emitter);
+
+        // Then
+        assertTrue(emitter.received.await(5, TimeUnit.SECONDS));
+        assertTrue(emitter.frames.get(0).contains("id:" + feed.epoch() + "-2"));
+        assertTrue(emitter.frames.get(1).contains("id:" + feed.epoch() + "-3"));
+        assertTrue(emitter.frames.get(1).contains("c@example.com"));
+    }
+
+    @Test
+    void testSubscribe_WithLastEventIdOutsideBuffer_ShouldSendReset() throws Exception {
+        // Given
+        for (int i = 0; i < 6; i++) {
+            feed.onUserChanged(created("user" + i + "@example.com"));
+        }
+        RecordingEmitter emitter = new RecordingEmitter(1);
+
+        // When
+        feed.subscribe(new UserChangeFeed.EventId(feed.epoch(), 1), emitter);
+
+        // Then
+        assertTrue(emitter.received.await(5, TimeUnit.SECONDS));
+        assertTrue(emitter.frames.get(0).contains("event:" + UserChangeFeed.RESET_EVENT));
+        assertTrue(emitter.frames.get(0).contains("id:" + feed.epoch() + "-6"));
+    }
+
+    @Test
+    void testSubscribe_WithLastEventIdFromEarlierProcess_ShouldSendReset() throws Exception {
+        // Given: the previous process got further than this one, whose sequence restarted at 1
+        feed.onUserChanged(created("a@example.com"));
+        feed.onUserChanged(created("b@example.com"));
+        RecordingEmitter emitter = new RecordingEmitter(1);
+
+        // When
+        feed.subscribe(new UserChangeFeed.EventId(feed.epoch() - 1, 1), emitter);
+
+        // Then
+        assertTrue(emitter.received.await(5, TimeUnit.SECONDS));
+        assertTrue(emitter.frames.get(0).contains("event:" + UserChangeFeed.RESET_EVENT));
+        assertTrue(emitter.frames.get(0).contains("id:" + feed.epoch() + "-2"));
+        assertFalse(emitter.frames.get(0).contains("b@example.com"));
+    }
+
+    @Test
+    void testEventIdParse_ShouldReadEpochAndSequence() {
+        // When & Then
+        assertEquals(new UserChangeFeed.EventId(1700000000000L, 41), UserChangeFeed.EventId.parse("1700000000000-41"));
+        assertEquals("1700000000000-41", new UserChangeFeed.EventId(1700000000000L, 41).toString());
+        // Ids without an epoch predate it and can never match the running process
+        assertEquals(new UserChangeFeed.EventId(0, 41), UserChangeFeed.EventId.parse("41"));
+        assertThrows(IllegalArgumentException.class, () -> UserChangeFeed.EventId.parse("abc"));
+        assertThrows(IllegalArgumentException.class, () -> UserChangeFeed.EventId.parse("1-"));
+        assertThrows(IllegalArgumentException.class, () -> UserChangeFeed.EventId.parse("-1"));
+    }
+
+    @Test
+    void testOnUserChanged_WithSlowSubscriber_ShouldDropItWithoutBlocking() throws Exception {
+        // Given
+        BlockingEmitter slow = new BlockingEmitter();
+        feed.subscribe(null, slow);
+        feed.onUserChanged(created("first@example.com"));
+        assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            feed.onUserChanged(created("user" + i + "@example.com"));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertTrue(elapsedMillis < 1000, "Writers must not wait for slow subscribers");
+        assertEquals(0, feed.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.get("users.changes.subscribers.dropped").counter().count());
+        slow.release.countDown();
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received;
+
+        private RecordingEmitter(int expected) {
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            frames.add(builder.build().stream()
+                    .map(data -> String.valueOf(data.getData()))
+                    .collect(Collectors.joining()));
+            received.countDown();
+        }
+    }
+
+    private static final class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.test.services;
+
+import com.example.test.events.UserChangedEvent;
+import com.example.test.model.User;
+import com.example.test.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private MeterRegistry meterRegistry;
+    private UserIdIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new UserIdIndex(userRepository, 16, Duration.ofHours(6), meterRegistry);
+    }
+
+    private static UserRepository.UserKey key(UUID id, String email) {
+        return new UserRepository.UserKey() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+
+    private void buildWith(UserRepository.UserKey... keys) {
+        when(userRepository.findAllKeys()).thenReturn(List.of(keys));
+        index.rebuild();
+    }
+
+    @Test
+    void testLookup_BeforeFirstBuild_ShouldBeUnknown() {
+        // When & Then
+        assertFalse(index.isReady());
+        assertEquals(UserIdIndex.Lookup.UNKNOWN, index.lookup("john@example.com"));
+    }
+
+    @Test
+    void testLookup_AfterBuild_ShouldAnswerFromMemory() {
+        // Given
+        buildWith(key(UUID.randomUUID(), "john@example.com"));
+
+        // When & Then
+        assertEquals(UserIdIndex.Lookup.PRESENT, index.lookup("john@example.com"));
+        assertEquals(UserIdIndex.Lookup.ABSENT, index.lookup("jane@example.com"));
+        assertEquals(1.0, meterRegistry.get("users.id.index.lookups").tag("result", "absent").counter().count());
+    }
+
+    @Test
+    void testOnUserChanged_ShouldFollowCreateUpdateAndDelete() {
+        // Given
+        buildWith();
+        User user = new User(UUID.randomUUID(), "John Doe", "old@example.com", "hash");
+
+        // When & Then
+        index.onUserChanged(UserChangedEvent.created(user));
+        assertEquals(UserIdIndex.Lookup.PRESENT, index.lookup("old@example.com"));
+
+        user.setEmail("new@example.com");
+        index.onUserChanged(UserChangedEvent.updated(user, "old@example.com"));
+        assertEquals(UserIdIndex.Lookup.ABSENT, index.lookup("old@example.com"));
+        assertEquals(UserIdIndex.Lookup.PRESENT, index.lookup("new@example.com"));
+
+        index.onUserChanged(UserChangedEvent.deleted(user));
+        assertEquals(UserIdIndex.Lookup.ABSENT, index.lookup("new@example.com"));
+    }
+
+    @Test
+    void testTable_WhenTwoUsersShareAHash_ShouldReportUnknownEvenAfterOneIsDeleted() {
+        // Given
+        UserIdIndex.Table table = new UserIdIndex.Table(16);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        table.put(42, first);
+
+        // When
+        table.put(42, second);
+        table.remove(42, first);
+
+        // Then
+        assertEquals(UserIdIndex.Lookup.UNKNOWN, table.lookup(42));
+    }
+
+    @Test
+    void testTable_ShouldGrowAndKeepEntriesReachableAfterRemovals() {
+        // Given
+        UserIdIndex.Table table = new UserIdIndex.Table(16);
+        UUID id = UUID.randomUUID();
+        for (long hash = 1; hash <= 10_000; hash++) {
+            table.put(hash, id);
+        }
+
+        // When
+        for (long hash = 1; hash <= 10_000; hash += 2) {
+            table.remove(hash, id);
+        }
+
+        // Then
+        assertEquals(5_000, table.size());
+        for (long hash = 1; hash <= 10_000; hash++) {
+            assertEquals(hash % 2 == 0 ? UserIdIndex.Lookup.PRESENT : UserIdIndex.Lookup.ABSENT, table.lookup(hash));
+        }
+    }
+
+    @Test
+    void testTable_ShouldStayUnderFortyBytesPerUserWhenPresized() {
+        // Given
+        UserIdIndex.Table table = new UserIdIndex.Table(1_000_000);
+        UUID id = UUID.randomUUID();
+
+        // When
+        for (long hash = 1; hash <= 1_000_000; hash++) {
+            table.put(hash, id);
+        }
+
+        // Then
+        assertTrue(table.memoryBytes() / 1_000_000.0 < 40, "bytes per user: " + table.memoryBytes() / 1_000_000.0);
+    }
+
+    @Test
+    void testMarkUnknown_ShouldSendLookupToDatabase() {
+        // Given
+        buildWith(key(UUID.randomUUID(), "john@example.com"));
+
+        // When
+        index.markUnknown(List.of("john@example.com", "jane@example.com"));
+
+        // Then
+        assertEquals(UserIdIndex.Lookup.UNKNOWN, index.lookup("john@example.com"));
+        assertEquals(UserIdIndex.Lookup.UNKNOWN, index.lookup("jane@example.com"));
+    }
+
+    @Test
+    void testRebuild_ShouldMarkEmailsChangedDuringTheScanUnknown() {
+        // Given
+        User user = new User(UUID.randomUUID(), "John Doe", "john@example.com", "hash");
+        when(userRepository.findAllKeys()).thenAnswer(invocation -> {
+            // Deleted after the scan read the row
+            index.onUserChanged(UserChangedEvent.deleted(user));
+            return List.of(key(user.getId(), user.getEmail()));
+        });
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertEquals(UserIdIndex.Lookup.UNKNOWN, index.lookup("john@example.com"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.test.services;
+
+import com.example.test.dto.ResponseDTO;
+import com.example.test.events.UserChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserListCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MeterRegistry meterRegistry;
+    private UserListCache cache;
+    private AtomicInteger loads;
+    private List<ResponseDTO> users;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserListCache(objectMapper, DataSize.ofMegabytes(1), meterRegistry);
+        loads = new AtomicInteger();
+        users = List.of(
+                new ResponseDTO(UUID.randomUUID(), "John Doe", "john@example.com", "hash1"),
+                new ResponseDTO(UUID.randomUUID(), "Jane Smith", "jane@example.com", "hash2")
+        );
+    }
+
+    private Supplier<List<ResponseDTO>> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return users;
+        };
+    }
+
+    @Test
+    void testGet_OnMiss_ShouldSerializeUsersToJsonAndGzip() throws Exception {
+        // When
+        UserListCache.Body body = cache.get(loader());
+
+        // Then
+        assertFalse(body.isEmpty());
+        assertArrayEquals(objectMapper.writeValueAsBytes(users), body.getJson());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body.getGzip()))) {
+            assertArrayEquals(body.getJson(), gzip.readAllBytes());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGet_OnHit_ShouldNotLoadAgain() {
+        // Given
+        UserListCache.Body first = cache.get(loader());
+
+        // When
+        UserListCache.Body second = cache.get(loader());
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("users.list.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("users.list.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testOnUserChanged_ShouldBumpVersionAndReload() {
+        // Given
+        UserListCache.Body first = cache.get(loader());
+
+        // When
+        cache.onUserChanged(new UserChangedEvent(UserChangedEvent.Type.CREATED, UUID.randomUUID(), "new@example.com", null));
+        UserListCache.Body second = cache.get(loader());
+
+        // Then
+        assertNotSame(first, second);
+        assertTrue(second.getVersion() > first.getVersion());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_WithEmptyList_ShouldReturnEmptyBody() {
+        // Given
+        users = List.of();
+
+        // When
+        UserListCache.Body body = cache.get(loader());
+
+        // Then
+        assertTrue(body.isEmpty());
+        assertNull(body.getJson());
+    }
+
+    @Test
+    void testGet_WhenBodyExceedsCap_ShouldNotCache() {
+        // Given
+        cache = new UserListCache(objectMapper, DataSize.ofBytes(16), meterRegistry);
+
+        // When
+        UserListCache.Body first = cache.get(loader());
+        UserListCache.Body second = cache.get(loader());
+
+        // Then
+        assertArrayEquals(first.getJson(), second.getJson());
+        assertEquals(2, loads.get());
+        assertEquals(2.0, meterRegistry.get("users.list.cache.rejected").counter().count());
+        assertEquals(0.0, meterRegistry.get("users.list.cache.bytes").gauge().value());
+    }
+}
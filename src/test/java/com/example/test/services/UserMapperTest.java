@@ -269,10 +269,10 @@ class UserMapperTest {
 
         // Then
         assertNotNull(responseDTO);
-        assertEquals(userId, responseDTO.getId());
-        assertEquals("John Doe", responseDTO.getName());
-        assertEquals("john@example.com", responseDTO.getEmail());
-        assertEquals("hashedPassword", responseDTO.getPassword());
+        assertEquals(userId, responseDTO.id());
+        assertEquals("John Doe", responseDTO.name());
+        assertEquals("john@example.com", responseDTO.email());
+        assertEquals("hashedPassword", responseDTO.password());
     }
 
     @Test
@@ -285,10 +285,10 @@ class UserMapperTest {
 
         // Then
         assertNotNull(responseDTO);
-        assertNull(responseDTO.getId());
-        assertNull(responseDTO.getName());
-        assertNull(responseDTO.getEmail());
-        assertNull(responseDTO.getPassword());
+        assertNull(responseDTO.id());
+        assertNull(responseDTO.name());
+        assertNull(responseDTO.email());
+        assertNull(responseDTO.password());
     }
 
     @Test
@@ -302,10 +302,10 @@ class UserMapperTest {
 
         // Then
         assertNotNull(responseDTO);
-        assertEquals(userId, responseDTO.getId());
-        assertEquals("", responseDTO.getName());
-        assertEquals("", responseDTO.getEmail());
-        assertEquals("", responseDTO.getPassword());
+        assertEquals(userId, responseDTO.id());
+        assertEquals("", responseDTO.name());
+        assertEquals("", responseDTO.email());
+        assertEquals("", responseDTO.password());
     }
 
     @Test
@@ -1,18 +1,25 @@
 package com.example.test.services;
 
+import com.example.test.cluster.UserInvalidationBus;
 import com.example.test.dto.RequestDTO;
 import com.example.test.dto.ResponseDTO;
+import com.example.test.events.UserChangedEvent;
 import com.example.test.exceptions.DuplicateUserException;
 import com.example.test.exceptions.UserNotFoundException;
 import com.example.test.model.User;
 import com.example.test.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -32,6 +39,21 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private UserCache userCache = new UserCache(100, Duration.ofMinutes(5), Duration.ofMinutes(10), 1, 100, new SimpleMeterRegistry());
+
+    @Mock
+    private EmailBloomFilter emailFilter;
+
+    @Mock
+    private UserIdIndex userIdIndex;
+
+    @Mock
+    private UserInvalidationBus invalidationBus;
+
     @InjectMocks
     private UserService userService;
 
@@ -43,6 +65,9 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        // The filter is conservative until built; by default every email may exist
+        lenient().when(emailFilter.mightContain(any())).thenReturn(true);
+        lenient().when(userIdIndex.lookup(any())).thenReturn(UserIdIndex.Lookup.UNKNOWN);
         testUser = new User(testId, "John Doe", testEmail, "hashedPassword");
         testRequestDTO = new RequestDTO("John Doe", testEmail, "Password123!");
         testResponseDTO = new ResponseDTO(testId, "John Doe", testEmail, "hashedPassword");
@@ -120,6 +145,51 @@ class UserServiceTest {
         verify(userRepository).save(testUser);
     }
 
+    @Test
+    void testToSaveUser_ShouldPublishCreatedEvent() {
+        // Given
+        when(userRepository.findByEmail(testRequestDTO.getEmail())).thenReturn(Optional.empty());
+        when(userMapper.toEntity(testRequestDTO)).thenReturn(testUser);
+        when(userRepository.save(testUser)).thenReturn(testUser);
+
+        // When
+        userService.toSaveUser(testRequestDTO);
+
+        // Then
+        verify(eventPublisher).publishEvent(new UserChangedEvent(UserChangedEvent.Type.CREATED, testId, testEmail, null));
+    }
+
+    @Test
+    void testToUpdateUser_ShouldPublishUpdatedEventWithPreviousEmail() {
+        // Given
+        RequestDTO dto = new RequestDTO("John Doe", "new@example.com", "Password123!");
+        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+        doAnswer(invocation -> {
+            testUser.setEmail("new@example.com");
+            return null;
+        }).when(userMapper).toUpdateEntity(testUser, dto);
+        when(userRepository.save(testUser)).thenReturn(testUser);
+
+        // When
+        userService.toUpdateUser(testEmail, dto);
+
+        // Then
+        verify(eventPublisher).publishEvent(
+                new UserChangedEvent(UserChangedEvent.Type.UPDATED, testId, "new@example.com", testEmail));
+    }
+
+    @Test
+    void testToDeleteUser_ShouldPublishDeletedEvent() {
+        // Given
+        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+
+        // When
+        userService.toDeleteUser(testEmail);
+
+        // Then
+        verify(eventPublisher).publishEvent(new UserChangedEvent(UserChangedEvent.Type.DELETED, testId, testEmail, null));
+    }
+
     @Test
     void testToSaveUser_WhenUserAlreadyExists_ShouldThrowDuplicateUserException() {
         // Given
@@ -134,6 +204,7 @@ class UserServiceTest {
         verify(userRepository).findByEmail(testRequestDTO.getEmail());
         verify(userMapper, never()).toEntity(any());
         verify(userRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
@@ -210,7 +281,7 @@ class UserServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(testResponseDTO, result);
-        assertEquals(testEmail, result.getEmail());
+        assertEquals(testEmail, result.email());
         verify(userRepository).findByEmail(testEmail);
         verify(userMapper).toPreviewUser(testUser);
     }
@@ -449,4 +520,140 @@ class UserServiceTest {
         );
         assertEquals("Database error", exception3.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testToPreviewUser_WhenCalledTwice_ShouldQueryDatabaseOnce() {
+        // Given
+        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+        when(userMapper.toPreviewUser(testUser)).thenReturn(testResponseDTO);
+
+        // When
+        ResponseDTO first = userService.toPreviewUser(testEmail);
+        ResponseDTO second = userService.toPreviewUser(testEmail);
+
+        // Then
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByEmail(testEmail);
+    }
+
+    @Test
+    void testUserDoesExist_WhenUserIsCached_ShouldNotQueryDatabase() {
+        // Given
+        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+        when(userMapper.toPreviewUser(testUser)).thenReturn(testResponseDTO);
+        userService.toPreviewUser(testEmail);
+
+        // When & Then
+        assertThrows(DuplicateUserException.class, () -> userService.userDoesExist(testEmail));
+        verify(userRepository, times(1)).findByEmail(testEmail);
+    }
+
+    @Test
+    void testToPreviewUser_AfterUserChanged_ShouldReloadFromDatabase() {
+        // Given
+        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+        when(userMapper.toPreviewUser(testUser)).thenReturn(testResponseDTO);
+        userService.toPreviewUser(testEmail);
+
+        // When
+        userCache.onUserChanged(UserChangedEvent.updated(testUser, testEmail));
+        userService.toPreviewUser(testEmail);
+
+        // Then
+        verify(userRepository, times(2)).findByEmail(testEmail);
+    }
+
+    @Test
+    void testUserDoesExist_WhenFilterReportsMiss_ShouldNotQueryDatabase() {
+        // Given
+        when(emailFilter.mightContain(testEmail)).thenReturn(false);
+        when(invalidationBus.isActive()).thenReturn(true);
+
+        // When & Then
+        assertDoesNotThrow(() -> userService.userDoesExist(testEmail));
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void testUserDoesExist_WhenFilterReportsMissWithoutInvalidationBus_ShouldQueryDatabase() {
+        // Given
+        lenient().when(emailFilter.mightContain(testEmail)).thenReturn(false);
+        when(invalidationBus.isActive()).thenReturn(false);
+        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+
+        // When & Then
+        assertThrows(DuplicateUserException.class, () -> userService.userDoesExist(testEmail));
+        verify(userRepository).findByEmail(testEmail);
+    }
+
+    @Test
+    void testUserDoesExist_WhenIndexReportsPresent_ShouldThrowWithoutQuery() {
+        // Given
+        when(userIdIndex.lookup(testEmail)).thenReturn(UserIdIndex.Lookup.PRESENT);
+
+        // When & Then
+        assertThrows(DuplicateUserException.class, () -> userService.userDoesExist(testEmail));
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void testUserExists_WhenIndexReportsAbsent_ShouldNotQueryDatabase() {
+        // Given
+        when(userIdIndex.lookup(testEmail)).thenReturn(UserIdIndex.Lookup.ABSENT);
+        when(invalidationBus.isActive()).thenReturn(true);
+
+        // When & Then
+        assertFalse(userService.userExists(testEmail));
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(emailFilter, never()).mightContain(anyString());
+    }
+
+    @Test
+    void testUserExists_WhenIndexReportsAbsentWithoutInvalidationBus_ShouldConfirmInDatabase() {
+        // Given
+        when(userIdIndex.lookup(testEmail)).thenReturn(UserIdIndex.Lookup.ABSENT);
+        when(invalidationBus.isActive()).thenReturn(false);
+        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+
+        // When & Then
+        assertTrue(userService.userExists(testEmail));
+        verify(userRepository).findByEmail(testEmail);
+    }
+
+    @Test
+    void testToSaveUser_WhenEmailConstraintIsViolated_ShouldThrowDuplicateUserException() {
+        // Given
+        when(userMapper.toEntity(testRequestDTO)).thenReturn(testUser);
+        when(userRepository.save(testUser)).thenReturn(testUser);
+        doThrow(new DataIntegrityViolationException("unique email")).when(userRepository).flush();
+
+        // When & Then
+        DuplicateUserException exception = assertThrows(DuplicateUserException.class,
+                () -> userService.toSaveUser(testRequestDTO));
+        assertInstanceOf(DataIntegrityViolationException.class, exception.getCause());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testToUpdateUser_WhenNewEmailIsTaken_ShouldThrowDuplicateUserException() {
+        // Given
+        RequestDTO dto = new RequestDTO("John Doe", "taken@example.com", "Password123!");
+        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenReturn(testUser);
+        doThrow(new DataIntegrityViolationException("unique email")).when(userRepository).flush();
+
+        // When & Then
+        assertThrows(DuplicateUserException.class, () -> userService.toUpdateUser(testEmail, dto));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testUserExists_WhenIndexIsUnsure_ShouldConfirmInDatabase() {
+        // Given
+        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+
+        // When & Then
+        assertTrue(userService.userExists(testEmail));
+        verify(userRepository).findByEmail(testEmail);
+    }
+}
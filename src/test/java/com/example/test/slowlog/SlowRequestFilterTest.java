@@ -0,0 +1,127 @@
+package com.example.test.slowlog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowRequestFilterTest {
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/users/update");
+        request.setQueryString("email=john@example.com");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/update");
+        return request;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testDoFilter_WhenSlow_ShouldRecordPhasesInOrder() throws Exception {
+        // Given
+        SlowRequestLog log = new SlowRequestLog(Duration.ofMillis(20), 10, new SimpleMeterRegistry());
+        SlowRequestFilter filter = new SlowRequestFilter(log);
+
+        // When
+        filter.doFilter(request(), new MockHttpServletResponse(), (req, res) -> {
+            RequestProfile.record("validation", "RequestDTO", TimeUnit.MILLISECONDS.toNanos(1));
+            sleep(30);
+            RequestProfile.record("hashing", "password.encrypt", TimeUnit.MILLISECONDS.toNanos(30));
+            RequestProfile.record("sql", "update users set name=? where id=?", TimeUnit.MILLISECONDS.toNanos(2));
+        });
+
+        // Then
+        List<SlowRequestLog.SlowRequest> recent = log.recent();
+        assertEquals(1, recent.size());
+        SlowRequestLog.SlowRequest slow = recent.get(0);
+        assertEquals("PUT", slow.method());
+        assertEquals("/users/update", slow.uri());
+        assertEquals(200, slow.status());
+        assertTrue(slow.durationMs() >= 30, "duration " + slow.durationMs());
+        assertEquals(List.of("validation", "hashing", "sql"),
+                slow.phases().stream().map(SlowRequestLog.Phase::name).toList());
+        assertEquals("update users set name=? where id=?", slow.phases().get(2).detail());
+        assertTrue(slow.phases().get(2).startMs() >= slow.phases().get(1).startMs());
+        assertEquals(0, slow.droppedPhases());
+    }
+
+    @Test
+    void testDoFilter_WhenFast_ShouldRecordNothing() throws Exception {
+        // Given
+        SlowRequestLog log = new SlowRequestLog(Duration.ofSeconds(10), 10, new SimpleMeterRegistry());
+        SlowRequestFilter filter = new SlowRequestFilter(log);
+
+        // When
+        filter.doFilter(request(), new MockHttpServletResponse(),
+                (req, res) -> RequestProfile.record("sql", "select 1", 1_000));
+
+        // Then
+        assertTrue(log.recent().isEmpty());
+    }
+
+    @Test
+    void testDoFilter_WithManyStatements_ShouldCountDroppedPhases() throws Exception {
+        // Given
+        SlowRequestLog log = new SlowRequestLog(Duration.ZERO, 10, new SimpleMeterRegistry());
+        SlowRequestFilter filter = new SlowRequestFilter(log);
+
+        // When
+        filter.doFilter(request(), new MockHttpServletResponse(), (req, res) -> {
+            for (int i = 0; i < RequestProfile.MAX_PHASES + 5; i++) {
+                RequestProfile.record("sql", "select " + i, 1_000);
+            }
+        });
+
+        // Then
+        SlowRequestLog.SlowRequest slow = log.recent().get(0);
+        assertEquals(RequestProfile.MAX_PHASES, slow.phases().size());
+        assertEquals(5, slow.droppedPhases());
+    }
+
+    @Test
+    void testRecord_OutsideRequest_ShouldBeIgnored() throws Exception {
+        // Given
+        SlowRequestLog log = new SlowRequestLog(Duration.ZERO, 10, new SimpleMeterRegistry());
+        SlowRequestFilter filter = new SlowRequestFilter(log);
+        filter.doFilter(request(), new MockHttpServletResponse(), (req, res) -> {
+        });
+
+        // When
+        RequestProfile.record("sql", "select 1", 1_000);
+        filter.doFilter(request(), new MockHttpServletResponse(), (req, res) -> {
+        });
+
+        // Then
+        assertEquals(2, log.recent().size());
+        log.recent().forEach(slow -> assertTrue(slow.phases().isEmpty()));
+    }
+
+    @Test
+    void testRecord_WithLongDetail_ShouldTruncate() throws Exception {
+        // Given
+        SlowRequestLog log = new SlowRequestLog(Duration.ZERO, 10, new SimpleMeterRegistry());
+        SlowRequestFilter filter = new SlowRequestFilter(log);
+
+        // When
+        filter.doFilter(request(), new MockHttpServletResponse(),
+                (req, res) -> RequestProfile.record("sql", "x".repeat(1000), 1_000));
+
+        // Then
+        String detail = log.recent().get(0).phases().get(0).detail();
+        assertEquals(RequestProfile.MAX_DETAIL_LENGTH, detail.length());
+        assertTrue(detail.endsWith("..."));
+    }
+}
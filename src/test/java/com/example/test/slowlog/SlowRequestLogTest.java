@@ -0,0 +1,67 @@
+package com.example.test.slowlog;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowRequestLogTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SlowRequestLog log = new SlowRequestLog(Duration.ofSeconds(1), 3, meterRegistry);
+
+    private static SlowRequestLog.SlowRequest slow(String uri) {
+        return new SlowRequestLog.SlowRequest(Instant.now(), "GET", uri, 200, 1500, List.of(), 0);
+    }
+
+    @Test
+    void testIsSlow_ShouldCompareAgainstThreshold() {
+        // When & Then
+        assertFalse(log.isSlow(Duration.ofMillis(999).toNanos()));
+        assertTrue(log.isSlow(Duration.ofSeconds(1).toNanos()));
+    }
+
+    @Test
+    void testRecent_ShouldReturnNewestFirst() {
+        // Given
+        log.add(slow("/users/create"));
+        log.add(slow("/users/update"));
+
+        // When
+        List<SlowRequestLog.SlowRequest> recent = log.recent();
+
+        // Then
+        assertEquals(List.of("/users/update", "/users/create"), recent.stream().map(SlowRequestLog.SlowRequest::uri).toList());
+        assertEquals(2.0, meterRegistry.get("users.requests.slow").counter().count());
+    }
+
+    @Test
+    void testAdd_WhenFull_ShouldOverwriteOldest() {
+        // Given
+        for (String uri : List.of("/a", "/b", "/c", "/d", "/e")) {
+            log.add(slow(uri));
+        }
+
+        // When
+        List<SlowRequestLog.SlowRequest> recent = log.recent();
+
+        // Then
+        assertEquals(List.of("/e", "/d", "/c"), recent.stream().map(SlowRequestLog.SlowRequest::uri).toList());
+    }
+
+    @Test
+    void testClear_ShouldRemoveEverything() {
+        // Given
+        log.add(slow("/users/create"));
+
+        // When
+        log.clear();
+
+        // Then
+        assertTrue(log.recent().isEmpty());
+    }
+}
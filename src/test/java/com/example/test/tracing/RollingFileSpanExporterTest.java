@@ -0,0 +1,86 @@
+package com.example.test.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingFileSpanExporterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    private Path tempDir;
+
+    private SdkTracerProvider tracerProvider;
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    private Tracer tracer(RollingFileSpanExporter exporter) {
+        tracerProvider = SdkTracerProvider.builder()
+                .setSampler(Sampler.alwaysOn())
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        return tracerProvider.get("test");
+    }
+
+    @Test
+    void testExport_ShouldWriteOneJsonLinePerSpan() throws Exception {
+        // Given
+        Path file = tempDir.resolve("spans/spans.jsonl");
+        Tracer tracer = tracer(new RollingFileSpanExporter(objectMapper, file, 1_000_000, 2));
+
+        // When
+        Span root = tracer.spanBuilder("request").startSpan();
+        root.setAttribute("http.route", "/users/preview");
+        tracer.spanBuilder("query").setParent(Context.root().with(root)).startSpan().end();
+        root.end();
+
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode query = objectMapper.readTree(lines.get(0));
+        JsonNode request = objectMapper.readTree(lines.get(1));
+        assertEquals("query", query.get("name").asText());
+        assertEquals(request.get("spanId").asText(), query.get("parentSpanId").asText());
+        assertEquals(request.get("traceId").asText(), query.get("traceId").asText());
+        assertFalse(request.has("parentSpanId"));
+        assertEquals("/users/preview", request.get("attributes").get("http.route").asText());
+        assertTrue(request.get("durationNanos").asLong() >= 0);
+    }
+
+    @Test
+    void testExport_WhenFileIsFull_ShouldRollAndKeepBoundedHistory() throws Exception {
+        // Given
+        Path file = tempDir.resolve("spans.jsonl");
+        RollingFileSpanExporter exporter = new RollingFileSpanExporter(objectMapper, file, 100, 2);
+        Tracer tracer = tracer(exporter);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            tracer.spanBuilder("span-" + i).startSpan().end();
+        }
+
+        // Then
+        assertEquals(1, Files.readAllLines(file).size());
+        assertTrue(Files.readString(file).contains("span-4"));
+        assertTrue(Files.readString(exporter.rolled(1)).contains("span-3"));
+        assertTrue(Files.readString(exporter.rolled(2)).contains("span-2"));
+        assertFalse(Files.exists(exporter.rolled(3)));
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.test.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TailSamplingSpanProcessorTest {
+    private static final long START = 1_000_000_000L;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CapturingExporter exporter = new CapturingExporter();
+    private SdkTracerProvider tracerProvider;
+    private TailSamplingSpanProcessor processor;
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    private Tracer tracer(double probability, boolean tailEnabled, int maxTraces) {
+        processor = new TailSamplingSpanProcessor(exporter, Duration.ofMillis(500), maxTraces, meterRegistry);
+        tracerProvider = SdkTracerProvider.builder()
+                .setSampler(new TailSampler(probability, tailEnabled))
+                .addSpanProcessor(processor)
+                .build();
+        return tracerProvider.get("test");
+    }
+
+    private static Span startChild(Tracer tracer, Span parent, String name, long startNanos) {
+        return tracer.spanBuilder(name)
+                .setParent(Context.root().with(parent))
+                .setStartTimestamp(startNanos, TimeUnit.NANOSECONDS)
+                .startSpan();
+    }
+
+    private static Span startRoot(Tracer tracer) {
+        return tracer.spanBuilder("request").setStartTimestamp(START, TimeUnit.NANOSECONDS).startSpan();
+    }
+
+    // Kept traces are exported from the batch worker thread
+    private void flush() {
+        assertTrue(processor.forceFlush().join(5, TimeUnit.SECONDS).isSuccess());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("users.tracing.tail").tag("result", result).counter().count();
+    }
+
+    @Test
+    void testOnEnd_WithSlowUnsampledTrace_ShouldExportWholeTrace() {
+        // Given
+        Tracer tracer = tracer(0.0, true, 10);
+        Span root = startRoot(tracer);
+        startChild(tracer, root, "query", START + 1_000).end(START + 2_000, TimeUnit.NANOSECONDS);
+
+        // When
+        root.end(START + Duration.ofMillis(600).toNanos(), TimeUnit.NANOSECONDS);
+        flush();
+
+        // Then
+        assertEquals(List.of("query", "request"), exporter.names());
+        assertEquals(0, processor.pendingTraces());
+        assertEquals(1.0, count("kept"));
+    }
+
+    @Test
+    void testOnEnd_WithFastUnsampledTrace_ShouldDiscardIt() {
+        // Given
+        Tracer tracer = tracer(0.0, true, 10);
+        Span root = startRoot(tracer);
+        startChild(tracer, root, "query", START + 1_000).end(START + 2_000, TimeUnit.NANOSECONDS);
+
+        // When
+        root.end(START + Duration.ofMillis(10).toNanos(), TimeUnit.NANOSECONDS);
+        flush();
+
+        // Then
+        assertTrue(exporter.spans.isEmpty());
+        assertEquals(0, processor.pendingTraces());
+        assertEquals(1.0, count("discarded"));
+    }
+
+    @Test
+    void testOnEnd_WithFastFailedTrace_ShouldExportIt() {
+        // Given
+        Tracer tracer = tracer(0.0, true, 10);
+        Span root = startRoot(tracer);
+        root.setStatus(StatusCode.ERROR);
+
+        // When
+        root.end(START + 1_000, TimeUnit.NANOSECONDS);
+        flush();
+
+        // Then
+        assertEquals(List.of("request"), exporter.names());
+    }
+
+    @Test
+    void testOnEnd_WithHeadSampledTrace_ShouldLeaveItToBatchProcessor() {
+        // Given
+        Tracer tracer = tracer(1.0, true, 10);
+        Span root = startRoot(tracer);
+
+        // When
+        root.end(START + Duration.ofSeconds(1).toNanos(), TimeUnit.NANOSECONDS);
+        flush();
+
+        // Then
+        assertTrue(root.getSpanContext().isSampled());
+        assertTrue(exporter.spans.isEmpty());
+    }
+
+    @Test
+    void testOnEnd_WhenBufferIsFull_ShouldEvictOldestTrace() {
+        // Given
+        Tracer tracer = tracer(0.0, true, 1);
+        Span first = startRoot(tracer);
+        Span second = startRoot(tracer);
+
+        // When
+        startChild(tracer, first, "first-child", START + 1_000).end(START + 2_000, TimeUnit.NANOSECONDS);
+        startChild(tracer, second, "second-child", START + 1_000).end(START + 2_000, TimeUnit.NANOSECONDS);
+        first.end(START + Duration.ofSeconds(1).toNanos(), TimeUnit.NANOSECONDS);
+        flush();
+
+        // Then
+        assertEquals(List.of("request"), exporter.names());
+        assertEquals(1, processor.pendingTraces());
+        assertEquals(1.0, count("evicted"));
+    }
+
+    @Test
+    void testOnEnd_WithSlowExporter_ShouldNotBlockEndingThread() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        exporter.blockOn(release);
+        Tracer tracer = tracer(0.0, true, 10);
+        Span root = startRoot(tracer);
+
+        // When
+        long start = System.nanoTime();
+        root.end(START + Duration.ofSeconds(1).toNanos(), TimeUnit.NANOSECONDS);
+        CompletableResultCode flushed = processor.forceFlush();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+
+        // Then
+        assertTrue(elapsedMillis < 1000, "ending the span blocked for " + elapsedMillis + " ms");
+        assertTrue(flushed.join(5, TimeUnit.SECONDS).isSuccess());
+        assertEquals(List.of("request"), exporter.names());
+    }
+
+    @Test
+    void testOnEnd_FromManyThreads_ShouldExportEverySlowTrace() throws Exception {
+        // Given
+        Tracer tracer = tracer(0.0, true, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> {
+                    Span root = startRoot(tracer);
+                    startChild(tracer, root, "query", START + 1_000).end(START + 2_000, TimeUnit.NANOSECONDS);
+                    root.end(START + Duration.ofSeconds(1).toNanos(), TimeUnit.NANOSECONDS);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        flush();
+
+        // Then
+        assertEquals(400, exporter.names().size());
+        assertEquals(0, processor.pendingTraces());
+        assertEquals(200.0, count("kept"));
+    }
+
+    @Test
+    void testSampler_WithSamplingAndTailOff_ShouldNotRecordSpans() {
+        // Given
+        Tracer tracer = tracer(0.0, false, 10);
+
+        // When
+        Span root = startRoot(tracer);
+
+        // Then
+        assertFalse(root.isRecording());
+        assertFalse(root.getSpanContext().isSampled());
+    }
+
+    private static final class CapturingExporter implements SpanExporter {
+        private final List<SpanData> spans = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        void blockOn(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> batch) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            spans.addAll(batch);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        List<String> names() {
+            return spans.stream().map(SpanData::getName).toList();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
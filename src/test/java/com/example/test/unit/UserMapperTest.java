@@ -90,8 +90,8 @@ class UserMapperTest {
         ResponseDTO dto = userMapper.toPreviewUser(user);
 
         assertNotNull(dto);
-        assertEquals(userId, dto.getId());
-        assertEquals("John Doe", dto.getName());
-        assertEquals("john.doe@example.com", dto.getEmail());
+        assertEquals(userId, dto.id());
+        assertEquals("John Doe", dto.name());
+        assertEquals("john.doe@example.com", dto.email());
     }
 }
\ No newline at end of file
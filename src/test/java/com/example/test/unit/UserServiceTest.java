@@ -1,21 +1,29 @@
 package com.example.test.unit;
 
+import com.example.test.cluster.UserInvalidationBus;
 import com.example.test.dto.RequestDTO;
 import com.example.test.dto.ResponseDTO;
 import com.example.test.exceptions.DuplicateUserException;
 import com.example.test.exceptions.UserNotFoundException;
 import com.example.test.model.User;
 import com.example.test.repository.UserRepository;
+import com.example.test.services.EmailBloomFilter;
+import com.example.test.services.UserCache;
+import com.example.test.services.UserIdIndex;
 import com.example.test.services.UserMapper;
 import com.example.test.services.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -34,6 +42,21 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private UserCache userCache = new UserCache(100, Duration.ofMinutes(5), Duration.ofMinutes(10), 1, 100, new SimpleMeterRegistry());
+
+    @Mock
+    private EmailBloomFilter emailFilter;
+
+    @Mock
+    private UserIdIndex userIdIndex;
+
+    @Mock
+    private UserInvalidationBus invalidationBus;
+
     @InjectMocks
     private UserService userService;
 
@@ -43,6 +66,9 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        // The filter is conservative until built; by default every email may exist
+        lenient().when(emailFilter.mightContain(any())).thenReturn(true);
+        lenient().when(userIdIndex.lookup(any())).thenReturn(UserIdIndex.Lookup.UNKNOWN);
         testUser = new User(
                 UUID.randomUUID(),
                 "John Doe",
@@ -163,7 +189,7 @@ class UserServiceTest {
         ResponseDTO result = userService.toPreviewUser(testUser.getEmail());
 
         assertNotNull(result);
-        assertEquals(testUser.getEmail(), result.getEmail());
+        assertEquals(testUser.getEmail(), result.email());
         verify(userRepository, times(1)).findByEmail(testUser.getEmail());
         verify(userMapper, times(1)).toPreviewUser(testUser);
     }